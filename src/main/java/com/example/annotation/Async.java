@@ -0,0 +1,14 @@
+package com.example.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Exécute la méthode (ou toutes les méthodes du contrôleur) hors du thread du
+ * conteneur, en mode asynchrone servlet. Délai en millisecondes, -1 pour
+ * utiliser l'init-param async-timeout.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.TYPE })
+public @interface Async {
+    long timeout() default -1;
+}
@@ -0,0 +1,16 @@
+package com.example.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Paramètre lié au corps JSON de la requête (objet, record, Map, List,
+ * tableau ou valeur simple). Sans annotation, le premier paramètre objet ou
+ * Map d'une route reçoit le corps quand la requête est en application/json.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Body {
+}
@@ -0,0 +1,18 @@
+package com.example.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Met en cache la réponse d'une route GET (corps sérialisé, en-têtes, type)
+ * pendant ttl millisecondes. La clé comprend la route, les variables de
+ * chemin et les paramètres de requête listés dans params (les autres sont
+ * ignorés). Les appels simultanés pour une même clé absente n'invoquent le
+ * contrôleur qu'une fois.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Cached {
+    long ttl() default 60_000;
+
+    String[] params() default {};
+}
@@ -0,0 +1,19 @@
+package com.example.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Réponses conditionnelles pour une route GET (ou toutes celles du
+ * contrôleur) : ETag calculé sur le corps JSON ou texte, 304 si le client a
+ * déjà cette version (If-None-Match).
+ *
+ * version nomme une méthode du contrôleur, sans paramètre ou avec les mêmes
+ * paramètres que la route, qui renvoie un jeton de version peu coûteux. Il
+ * sert d'ETag et, si c'est un Instant ou une Date, de Last-Modified : sur
+ * correspondance, ni la route ni la sérialisation ne sont exécutées.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.TYPE })
+public @interface ETag {
+    String version() default "";
+}
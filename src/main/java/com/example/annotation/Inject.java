@@ -0,0 +1,11 @@
+package com.example.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Constructeur utilisé par le conteneur quand une classe en déclare plusieurs.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.CONSTRUCTOR)
+public @interface Inject {
+}
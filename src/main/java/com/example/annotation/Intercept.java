@@ -0,0 +1,17 @@
+package com.example.annotation;
+
+import java.lang.annotation.*;
+
+import com.example.controller.Interceptor;
+
+/**
+ * Intercepteurs propres à une route (sur la méthode) ou à toutes les routes
+ * d'un contrôleur (sur la classe). Ils s'exécutent après les intercepteurs
+ * globaux, ceux de la classe avant ceux de la méthode. Les instances sont
+ * fournies par le conteneur (une par classe, dépendances injectées).
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.TYPE })
+public @interface Intercept {
+    Class<? extends Interceptor>[] value();
+}
@@ -2,8 +2,13 @@ package com.example.annotation;
 
 import java.lang.annotation.*;
 
+/**
+ * Sur une méthode de contrôleur : la réponse est sérialisée en JSON.
+ * Sur un champ, un composant de record ou un getter : nom de la propriété
+ * dans le JSON produit (ex: {@code @Json("first_name")}).
+ */
 @Retention(RetentionPolicy.RUNTIME)
-@Target(ElementType.METHOD)
+@Target({ ElementType.METHOD, ElementType.FIELD, ElementType.RECORD_COMPONENT })
 public @interface Json {
-    // Peut être vide ou avoir des attributs comme indentation, etc.
-}
\ No newline at end of file
+    String value() default "";
+}
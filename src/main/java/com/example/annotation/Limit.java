@@ -0,0 +1,28 @@
+package com.example.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Cloisonne une route (ou toutes les routes du contrôleur) : au plus
+ * maxConcurrent requêtes en cours, queue requêtes en attente pendant au plus
+ * queueTimeout ms ; au-delà la requête est refusée aussitôt par un 503 avec
+ * Retry-After (secondes).
+ *
+ * Avec adaptive, la limite effective varie entre 1 et maxConcurrent (AIMD) :
+ * +1 quand les réponses restent sous latencyTarget ms, réduite de 10 % sinon.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.TYPE })
+public @interface Limit {
+    int maxConcurrent();
+
+    int queue() default 0;
+
+    long queueTimeout() default 100;
+
+    int retryAfter() default 1;
+
+    boolean adaptive() default false;
+
+    long latencyTarget() default 500;
+}
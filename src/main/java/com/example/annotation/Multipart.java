@@ -0,0 +1,18 @@
+package com.example.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Limites d'une route qui reçoit du multipart/form-data, vérifiées pendant la
+ * lecture (-1 = pas de limite). Un paramètre de type MultipartStream active
+ * le mode flux : les parties sont lues dans l'ordre d'arrivée, sans tampon.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Multipart {
+    long maxFileSize() default -1;
+
+    int maxParts() default -1;
+
+    long maxTotalSize() default -1;
+}
@@ -0,0 +1,27 @@
+package com.example.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Portée des instances créées par le conteneur (contrôleurs et dépendances).
+ * Sans annotation : singleton créé au démarrage.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Scope {
+    Type value() default Type.SINGLETON;
+
+    /**
+     * Singleton créé au premier usage plutôt qu'au démarrage.
+     */
+    boolean lazy() default false;
+
+    enum Type {
+        // Une instance pour l'application
+        SINGLETON,
+        // Une nouvelle instance à chaque injection (à chaque appel pour un contrôleur)
+        PROTOTYPE,
+        // Une instance par requête HTTP
+        REQUEST
+    }
+}
@@ -1,5 +1,10 @@
 package com.example.classe;
 
+/**
+ * @deprecated remplacé par {@link Converters}, qui résout la conversion une
+ *             fois par type ; conservé pour le code applicatif existant.
+ */
+@Deprecated
 public class Caste {
     String value;
     Class<?> type;
@@ -31,20 +36,8 @@ public class Caste {
      * @return l'objet de type type, converti depuis la valeur String.
      */
     public Object getTypedValue() {
-        if (type == String.class) {
-            return value;
-        } else if (type == Integer.class || type == int.class) {
-            return Integer.valueOf(value);
-        } else if (type == Double.class || type == double.class) {
-            return Double.valueOf(value);
-        } else if (type == Boolean.class || type == boolean.class) {
-            return Boolean.valueOf(value);
-        } else if (type == Long.class || type == long.class) {
-            return Long.valueOf(value);
-        } else if (type == Float.class || type == float.class) {
-            return Float.valueOf(value);
-        }
+        TypeConverter<?> converter = Converters.forType(type);
         // Pour les autres types, retourner la valeur String par défaut
-        return value;
+        return converter != null ? Converters.convert(converter, value, type) : value;
     }
 }
\ No newline at end of file
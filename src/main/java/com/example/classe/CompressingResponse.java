@@ -0,0 +1,317 @@
+package com.example.classe;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.Locale;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Réponse compressée en gzip ou deflate selon Accept-Encoding. Le corps est
+ * gardé en mémoire jusqu'au seuil : en dessous, ou pour un type non
+ * compressible, il est envoyé tel quel avec sa longueur. Le premier flush
+ * (flux JSON) décide aussitôt. {@link #finish()} termine la réponse.
+ */
+public class CompressingResponse extends HttpServletResponseWrapper {
+
+    private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+    private final boolean gzip;
+    private final int threshold;
+    private final DeflaterPool pool;
+
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private CompressedStream compressed;
+    private boolean identity = false;
+    private boolean finishing = false;
+    private ServletOutputStream output;
+    private PrintWriter writer;
+
+    public CompressingResponse(HttpServletResponse response, String encoding, int threshold, DeflaterPool pool) {
+        super(response);
+        this.gzip = "gzip".equals(encoding);
+        this.threshold = threshold;
+        this.pool = pool;
+    }
+
+    /**
+     * Encodage à utiliser d'après Accept-Encoding : "gzip", "deflate" ou null.
+     */
+    public static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        double gzipQ = 0;
+        double deflateQ = 0;
+        double anyQ = 0;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1;
+            for (int i = 1; i < tokens.length; i++) {
+                String t = tokens[i].trim();
+                if (t.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(t.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQ = q;
+            } else if (coding.equals("deflate")) {
+                deflateQ = q;
+            } else if (coding.equals("*")) {
+                anyQ = q;
+            }
+        }
+        if (gzipQ > 0 && gzipQ >= deflateQ) {
+            return "gzip";
+        }
+        if (deflateQ > 0) {
+            return "deflate";
+        }
+        return anyQ > 0 ? "gzip" : null;
+    }
+
+    public static boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.startsWith("text/")
+                || type.startsWith("application/json")
+                || type.startsWith("application/javascript")
+                || type.startsWith("application/xml")
+                || type.contains("+json")
+                || type.contains("+xml");
+    }
+
+    // ==================== DÉCISION ====================
+
+    private void start() throws IOException {
+        HttpServletResponse resp = (HttpServletResponse) getResponse();
+        boolean compressible = isCompressible(getContentType());
+        if (compressible) {
+            resp.addHeader("Vary", "Accept-Encoding");
+        }
+        if (!compressible || resp.containsHeader("Content-Encoding")) {
+            identity = true;
+            pending.writeTo(resp.getOutputStream());
+            pending.reset();
+            return;
+        }
+
+        resp.setHeader("Content-Encoding", gzip ? "gzip" : "deflate");
+        // Le contenu envoyé n'est plus celui de l'ETag calculé : ETag faible
+        String etag = resp.getHeader("ETag");
+        if (etag != null && !etag.startsWith("W/")) {
+            resp.setHeader("ETag", "W/" + etag);
+        }
+        compressed = new CompressedStream(resp.getOutputStream());
+        pending.writeTo(compressed);
+        pending.reset();
+    }
+
+    private void write(byte[] b, int off, int len) throws IOException {
+        if (compressed != null) {
+            compressed.write(b, off, len);
+        } else if (identity) {
+            getResponse().getOutputStream().write(b, off, len);
+        } else {
+            pending.write(b, off, len);
+            if (pending.size() >= threshold) {
+                start();
+            }
+        }
+    }
+
+    private void flush() throws IOException {
+        if (finishing) {
+            // Vidage interne du writer par finish() : ne décide rien
+            return;
+        }
+        if (compressed == null && !identity) {
+            start();
+        }
+        if (compressed != null) {
+            compressed.flush();
+        }
+        getResponse().flushBuffer();
+    }
+
+    /**
+     * Envoie ce qui reste : corps court en clair avec sa longueur, ou fin du
+     * flux compressé (le Deflater retourne à la réserve).
+     */
+    public void finish() throws IOException {
+        finishing = true;
+        if (writer != null) {
+            writer.flush();
+        }
+        HttpServletResponse resp = (HttpServletResponse) getResponse();
+        if (compressed != null) {
+            compressed.finish();
+            compressed = null;
+            identity = true;
+        } else if (!identity) {
+            identity = true;
+            if (isCompressible(getContentType())) {
+                resp.addHeader("Vary", "Accept-Encoding");
+            }
+            if (pending.size() > 0) {
+                resp.setContentLength(pending.size());
+                pending.writeTo(resp.getOutputStream());
+                pending.reset();
+            }
+        }
+    }
+
+    /**
+     * Abandon après une erreur : rien n'est écrit, le Deflater est rendu.
+     */
+    public void abort() {
+        if (compressed != null) {
+            compressed.release();
+            compressed = null;
+        }
+        pending.reset();
+        identity = true;
+    }
+
+    // ==================== RÉPONSE ====================
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (output == null) {
+            output = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    CompressingResponse.this.write(new byte[] { (byte) b }, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    CompressingResponse.this.write(b, off, len);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    CompressingResponse.this.flush();
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    throw new UnsupportedOperationException("Réponse compressée : écriture bloquante uniquement");
+                }
+            };
+        }
+        return output;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), Charset.forName(getCharacterEncoding())));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        // Longueur connue seulement à la fin (corps en clair) ou jamais (compressé)
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        } else {
+            flush();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (compressed == null && !identity) {
+            pending.reset();
+        }
+        super.resetBuffer();
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        super.reset();
+    }
+
+    // ==================== FLUX ====================
+
+    /**
+     * DeflaterOutputStream sur un Deflater de la réserve, avec en-tête et
+     * CRC gzip si besoin. Le flush synchronise le Deflater (SYNC_FLUSH).
+     */
+    private final class CompressedStream extends DeflaterOutputStream {
+        private final CRC32 crc = new CRC32();
+        private boolean released = false;
+
+        CompressedStream(OutputStream out) throws IOException {
+            super(out, pool.borrow(gzip), 8192, true);
+            if (gzip) {
+                out.write(GZIP_HEADER);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            super.write(b, off, len);
+            if (gzip) {
+                crc.update(b, off, len);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            try {
+                super.finish();
+                if (gzip) {
+                    writeIntLE((int) crc.getValue());
+                    writeIntLE((int) def.getBytesRead());
+                }
+                out.flush();
+            } finally {
+                release();
+            }
+        }
+
+        private void writeIntLE(int v) throws IOException {
+            out.write(v & 0xFF);
+            out.write((v >>> 8) & 0xFF);
+            out.write((v >>> 16) & 0xFF);
+            out.write((v >>> 24) & 0xFF);
+        }
+
+        void release() {
+            if (!released) {
+                released = true;
+                pool.release(def, gzip);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.classe;
+
+/**
+ * Valeur de requête impossible à convertir vers le type attendu : renvoyée
+ * au client par un 400 qui décrit le paramètre en cause.
+ */
+public class ConversionException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final String parameter;
+    private final String value;
+    private final Class<?> targetType;
+
+    public ConversionException(String parameter, String value, Class<?> targetType, Throwable cause) {
+        super("Valeur invalide" + (parameter != null ? " pour " + parameter : "")
+                + " : '" + value + "' n'est pas un " + targetType.getSimpleName(), cause);
+        this.parameter = parameter;
+        this.value = value;
+        this.targetType = targetType;
+    }
+
+    /**
+     * Même erreur, rattachée au nom du paramètre de requête.
+     */
+    public ConversionException withParameter(String name) {
+        return new ConversionException(name, value, targetType, getCause());
+    }
+
+    public String getParameter() {
+        return parameter;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public Class<?> getTargetType() {
+        return targetType;
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.classe;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.time.*;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Registre des conversions String → type, résolu une fois par type puis mis
+ * en cache (ClassValue) : les binders obtiennent leur convertisseur au scan
+ * des routes et l'appellent directement à chaque requête.
+ *
+ * Types pris en charge : primitifs et enveloppes, String, enums (nom exact
+ * puis sans casse), LocalDate, LocalDateTime, LocalTime, Instant,
+ * OffsetDateTime, Duration, UUID, URI, BigDecimal, BigInteger, puis tout type
+ * qui expose une fabrique statique valueOf, of, fromString ou parse (String ou
+ * CharSequence). Un simple constructeur (String) ne suffit pas : un objet de
+ * formulaire en a souvent un et doit rester lié champ par champ.
+ */
+public final class Converters {
+
+    // Aucun convertisseur pour le type (ClassValue n'accepte pas null)
+    private static final TypeConverter<Object> NONE = value -> {
+        throw new UnsupportedOperationException();
+    };
+
+    private static final Pattern EPOCH_MILLIS = Pattern.compile("-?\\d+");
+
+    private static final Map<Class<?>, TypeConverter<?>> REGISTERED = new ConcurrentHashMap<>();
+
+    private static final ClassValue<TypeConverter<?>> RESOLVED = new ClassValue<>() {
+        @Override
+        protected TypeConverter<?> computeValue(Class<?> type) {
+            TypeConverter<?> converter = REGISTERED.get(type);
+            if (converter == null) {
+                converter = builtIn(type);
+            }
+            if (converter == null) {
+                converter = byConvention(type);
+            }
+            return converter != null ? converter : NONE;
+        }
+    };
+
+    private Converters() {
+    }
+
+    /**
+     * Enregistre (ou remplace) la conversion vers un type.
+     */
+    public static <T> void register(Class<T> type, TypeConverter<? extends T> converter) {
+        REGISTERED.put(type, converter);
+        RESOLVED.remove(type);
+    }
+
+    public static boolean supports(Class<?> type) {
+        return RESOLVED.get(type) != NONE;
+    }
+
+    /**
+     * Convertisseur du type, ou null si aucun.
+     */
+    public static TypeConverter<?> forType(Class<?> type) {
+        TypeConverter<?> converter = RESOLVED.get(type);
+        return converter != NONE ? converter : null;
+    }
+
+    /**
+     * Convertit la valeur ; une valeur vide vaut null pour tout type autre que
+     * String (champ de formulaire laissé vide).
+     *
+     * @throws ConversionException si la valeur est invalide
+     */
+    public static Object convert(TypeConverter<?> converter, String value, Class<?> type) {
+        if (value == null || (value.isEmpty() && type != String.class)) {
+            return null;
+        }
+        try {
+            return converter.convert(value);
+        } catch (ConversionException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ConversionException(null, value, type, e);
+        }
+    }
+
+    // ==================== CONVERTISSEURS ====================
+
+    private static TypeConverter<?> builtIn(Class<?> type) {
+        if (type == String.class || type == Object.class || type == CharSequence.class) {
+            return value -> value;
+        }
+        if (type == int.class || type == Integer.class) {
+            return value -> Integer.parseInt(value.trim());
+        }
+        if (type == long.class || type == Long.class) {
+            return value -> Long.parseLong(value.trim());
+        }
+        if (type == double.class || type == Double.class) {
+            return value -> Double.parseDouble(value.trim());
+        }
+        if (type == float.class || type == Float.class) {
+            return value -> Float.parseFloat(value.trim());
+        }
+        if (type == short.class || type == Short.class) {
+            return value -> Short.parseShort(value.trim());
+        }
+        if (type == byte.class || type == Byte.class) {
+            return value -> Byte.parseByte(value.trim());
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return Converters::parseBoolean;
+        }
+        if (type == char.class || type == Character.class) {
+            return value -> {
+                if (value.length() != 1) {
+                    throw new IllegalArgumentException("Un seul caractère attendu");
+                }
+                return value.charAt(0);
+            };
+        }
+        if (type.isEnum()) {
+            return enumConverter(type);
+        }
+        if (type == BigDecimal.class) {
+            return value -> new BigDecimal(value.trim());
+        }
+        if (type == BigInteger.class) {
+            return value -> new BigInteger(value.trim());
+        }
+        if (type == URI.class) {
+            return value -> new URI(value.trim());
+        }
+        if (type == UUID.class) {
+            return value -> UUID.fromString(value.trim());
+        }
+        if (type == LocalDate.class) {
+            return value -> LocalDate.parse(value.trim());
+        }
+        if (type == LocalDateTime.class) {
+            return value -> LocalDateTime.parse(value.trim());
+        }
+        if (type == LocalTime.class) {
+            return value -> LocalTime.parse(value.trim());
+        }
+        if (type == OffsetDateTime.class) {
+            return value -> OffsetDateTime.parse(value.trim());
+        }
+        if (type == Instant.class) {
+            // ISO-8601 ou millisecondes depuis l'époque
+            return value -> {
+                String v = value.trim();
+                return EPOCH_MILLIS.matcher(v).matches() ? Instant.ofEpochMilli(Long.parseLong(v)) : Instant.parse(v);
+            };
+        }
+        if (type == Duration.class) {
+            return value -> Duration.parse(value.trim());
+        }
+        return null;
+    }
+
+    private static Boolean parseBoolean(String value) {
+        switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "true":
+            case "on":
+            case "yes":
+            case "1":
+                return Boolean.TRUE;
+            case "false":
+            case "off":
+            case "no":
+            case "0":
+                return Boolean.FALSE;
+            default:
+                throw new IllegalArgumentException("Booléen attendu");
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static TypeConverter<?> enumConverter(Class<?> type) {
+        Object[] constants = type.getEnumConstants();
+        return value -> {
+            String v = value.trim();
+            try {
+                return Enum.valueOf((Class) type, v);
+            } catch (IllegalArgumentException e) {
+                for (Object constant : constants) {
+                    if (((Enum<?>) constant).name().equalsIgnoreCase(v)) {
+                        return constant;
+                    }
+                }
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * Méthode de fabrique statique, compilée en MethodHandle.
+     */
+    private static TypeConverter<?> byConvention(Class<?> type) {
+        if (type.isPrimitive() || type.isArray() || type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        MethodType signature = MethodType.methodType(Object.class, String.class);
+        try {
+            for (String name : new String[] { "valueOf", "of", "fromString", "parse" }) {
+                for (Class<?> param : new Class<?>[] { String.class, CharSequence.class }) {
+                    Method m = findFactory(type, name, param);
+                    if (m != null) {
+                        MethodHandle handle = lookup.unreflect(m).asType(signature);
+                        return value -> invoke(handle, value);
+                    }
+                }
+            }
+            return null;
+        } catch (IllegalAccessException | SecurityException e) {
+            return null;
+        }
+    }
+
+    private static Method findFactory(Class<?> type, String name, Class<?> param) {
+        try {
+            Method m = type.getMethod(name, param);
+            int mod = m.getModifiers();
+            return Modifier.isStatic(mod) && type.isAssignableFrom(m.getReturnType()) ? m : null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static Object invoke(MethodHandle handle, String value) throws Exception {
+        try {
+            return (Object) handle.invokeExact(value);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.classe;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+
+/**
+ * Réserve de Deflater réutilisés entre les réponses : un Deflater alloue de
+ * la mémoire native à sa création, coûteuse à refaire à chaque requête.
+ * Deux réserves, format brut (gzip, nowrap) et zlib (deflate).
+ */
+public class DeflaterPool {
+
+    private final int level;
+    private final int maxIdle;
+    private final Queue<Deflater> raw = new ConcurrentLinkedQueue<>();
+    private final Queue<Deflater> zlib = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger rawIdle = new AtomicInteger();
+    private final AtomicInteger zlibIdle = new AtomicInteger();
+
+    public DeflaterPool(int level, int maxIdle) {
+        this.level = level;
+        this.maxIdle = maxIdle;
+    }
+
+    public Deflater borrow(boolean nowrap) {
+        Deflater deflater = (nowrap ? raw : zlib).poll();
+        if (deflater == null) {
+            return new Deflater(level, nowrap);
+        }
+        (nowrap ? rawIdle : zlibIdle).decrementAndGet();
+        return deflater;
+    }
+
+    public void release(Deflater deflater, boolean nowrap) {
+        AtomicInteger idle = nowrap ? rawIdle : zlibIdle;
+        if (idle.incrementAndGet() > maxIdle) {
+            idle.decrementAndGet();
+            deflater.end();
+            return;
+        }
+        deflater.reset();
+        (nowrap ? raw : zlib).offer(deflater);
+    }
+}
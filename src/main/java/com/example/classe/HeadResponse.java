@@ -0,0 +1,111 @@
+package com.example.classe;
+
+import java.io.*;
+import java.nio.charset.Charset;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Réponse d'une requête HEAD servie par la route GET : le corps est compté
+ * mais jamais envoyé. {@link #finish()} pose Content-Length si la route ne
+ * l'a pas fait.
+ */
+public class HeadResponse extends HttpServletResponseWrapper {
+    private long length;
+    private boolean lengthSet;
+    private ServletOutputStream output;
+    private PrintWriter writer;
+
+    public HeadResponse(HttpServletResponse response) {
+        super(response);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (output == null) {
+            output = new ServletOutputStream() {
+                @Override
+                public void write(int b) {
+                    length++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    length += len;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    throw new UnsupportedOperationException("Réponse HEAD : écriture bloquante uniquement");
+                }
+            };
+        }
+        return output;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), Charset.forName(getCharacterEncoding())));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        lengthSet = true;
+        super.setContentLength(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        lengthSet = true;
+        super.setContentLengthLong(len);
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if ("Content-Length".equalsIgnoreCase(name)) {
+            lengthSet = true;
+        }
+        super.setHeader(name, value);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if ("Content-Length".equalsIgnoreCase(name)) {
+            lengthSet = true;
+        }
+        super.addHeader(name, value);
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        length = 0;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        length = 0;
+        lengthSet = false;
+    }
+
+    public void finish() {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (!lengthSet && !isCommitted()) {
+            super.setContentLengthLong(length);
+        }
+    }
+}
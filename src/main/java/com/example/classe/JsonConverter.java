@@ -1,161 +1,524 @@
 package com.example.classe;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.BaseStream;
 
-public class JsonConverter {
+import com.example.annotation.Json;
+
+public class JsonConverter implements JsonSerializer {
+
+    private static final JsonConverter DEFAULT = new JsonConverter();
+
+    // Writers enregistrés, remplacés en bloc à chaque register
+    private volatile TypeWriters typeWriters = new TypeWriters(Collections.emptyMap());
+
+    private static final JsonTypeWriter<Object> NO_WRITER = (value, out, json) -> {
+    };
+
+    /**
+     * Propriétés sérialisables d'une classe, calculées une seule fois.
+     * Une liste vide signifie que l'objet est écrit comme une chaîne (toString).
+     */
+    private static final ClassValue<Property[]> PROPERTIES = new ClassValue<Property[]>() {
+        @Override
+        protected Property[] computeValue(Class<?> type) {
+            return introspect(type);
+        }
+    };
+
+    private static final Property[] VALUE_TYPE = new Property[0];
+
+    private static class Property {
+        final char[] prefix; // "nom": déjà échappé
+        final MethodHandle getter; // (Object) -> Object
+
+        Property(String name, MethodHandle getter) {
+            this.prefix = ("\"" + escapeJson(name) + "\":").toCharArray();
+            this.getter = getter;
+        }
+    }
 
     /**
      * Convertit un objet en JSON
      */
     public static String toJson(Object obj) {
-        if (obj == null) {
-            return "null";
-        }
+        return DEFAULT.serialize(obj);
+    }
 
-        if (obj instanceof String) {
-            return "\"" + escapeJson((String) obj) + "\"";
+    @Override
+    public String serialize(Object value) {
+        StringBuilderWriter out = new StringBuilderWriter();
+        try {
+            serialize(value, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+        return out.toString();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized <T> void register(Class<T> type, JsonTypeWriter<? super T> writer) {
+        // Nouvel instantané avec un cache vide : une résolution en cours ne
+        // peut remplir que le cache de l'ancien
+        Map<Class<?>, JsonTypeWriter<Object>> registered = new HashMap<>(typeWriters.registered);
+        registered.put(type, (JsonTypeWriter<Object>) writer);
+        typeWriters = new TypeWriters(registered);
+    }
 
-        if (obj instanceof Number || obj instanceof Boolean) {
-            return obj.toString();
+    /**
+     * Écrit l'objet en JSON directement dans le Writer (réponse HTTP, fichier...)
+     * sans construire de chaîne intermédiaire.
+     */
+    @Override
+    public void serialize(Object obj, Writer out) throws IOException {
+        if (obj == null) {
+            out.write("null");
+            return;
+        }
+        TypeWriters writers = typeWriters;
+        if (!writers.registered.isEmpty()) {
+            JsonTypeWriter<Object> writer = writers.find(obj.getClass());
+            if (writer != NO_WRITER) {
+                writer.write(obj, out, this);
+                return;
+            }
         }
 
-        if (obj instanceof Map) {
-            return mapToJson((Map<?, ?>) obj);
+        if (obj instanceof CharSequence || obj instanceof Character || obj instanceof Enum) {
+            writeString(obj.toString(), out);
+        } else if (obj instanceof Number) {
+            writeNumber((Number) obj, out);
+        } else if (obj instanceof Boolean) {
+            out.write(((Boolean) obj) ? "true" : "false");
+        } else if (obj instanceof Map) {
+            writeMap((Map<?, ?>) obj, out);
+        } else if (obj instanceof Iterable) {
+            writeIterator(((Iterable<?>) obj).iterator(), out);
+        } else if (obj instanceof Iterator) {
+            writeIterator((Iterator<?>) obj, out);
+        } else if (obj instanceof BaseStream) {
+            try (BaseStream<?, ?> stream = (BaseStream<?, ?>) obj) {
+                writeIterator(stream.iterator(), out);
+            }
+        } else if (obj instanceof Object[]) {
+            writeArray((Object[]) obj, out);
+        } else if (obj.getClass().isArray()) {
+            // Pour les tableaux primitifs
+            writePrimitiveArray(obj, out);
+        } else {
+            // Pour les objets Java POJO
+            writeObject(obj, out);
         }
+    }
+
+    /**
+     * Writers enregistrés (immuable) et résolution mise en cache pour les
+     * sous-types. Le type enregistré le plus spécifique l'emporte :
+     * superclasses de la plus proche à la plus lointaine, puis interfaces par
+     * distance, Object en dernier.
+     */
+    private static class TypeWriters {
+        final Map<Class<?>, JsonTypeWriter<Object>> registered;
+        final Map<Class<?>, JsonTypeWriter<Object>> resolved = new ConcurrentHashMap<>();
 
-        if (obj instanceof Iterable) {
-            return iterableToJson((Iterable<?>) obj);
+        TypeWriters(Map<Class<?>, JsonTypeWriter<Object>> registered) {
+            this.registered = Collections.unmodifiableMap(registered);
         }
 
-        if (obj instanceof Object[]) {
-            return arrayToJson((Object[]) obj);
+        JsonTypeWriter<Object> find(Class<?> type) {
+            JsonTypeWriter<Object> writer = resolved.get(type);
+            if (writer == null) {
+                writer = resolve(type);
+                resolved.put(type, writer);
+            }
+            return writer;
         }
 
-        if (obj.getClass().isArray()) {
-            // Pour les tableaux primitifs
-            return primitiveArrayToJson(obj);
+        private JsonTypeWriter<Object> resolve(Class<?> type) {
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                JsonTypeWriter<Object> writer = registered.get(c);
+                if (writer != null) {
+                    return writer;
+                }
+            }
+
+            // Interfaces en largeur : directes (de la classe puis de ses
+            // superclasses), puis leurs super-interfaces
+            Deque<Class<?>> queue = new ArrayDeque<>();
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                queue.addAll(Arrays.asList(c.getInterfaces()));
+            }
+            Set<Class<?>> seen = new HashSet<>();
+            while (!queue.isEmpty()) {
+                Class<?> candidate = queue.poll();
+                if (!seen.add(candidate)) {
+                    continue;
+                }
+                JsonTypeWriter<Object> writer = registered.get(candidate);
+                if (writer != null) {
+                    return writer;
+                }
+                queue.addAll(Arrays.asList(candidate.getInterfaces()));
+            }
+
+            JsonTypeWriter<Object> writer = registered.get(Object.class);
+            return writer != null ? writer : NO_WRITER;
         }
+    }
 
-        // Pour les objets Java POJO
-        return objectToJson(obj);
+    private static void writeNumber(Number n, Writer out) throws IOException {
+        if ((n instanceof Double && !Double.isFinite((Double) n))
+                || (n instanceof Float && !Float.isFinite((Float) n))) {
+            out.write("null");
+        } else {
+            out.write(n.toString());
+        }
     }
 
-    private static String mapToJson(Map<?, ?> map) {
-        StringBuilder sb = new StringBuilder("{");
+    private void writeMap(Map<?, ?> map, Writer out) throws IOException {
+        out.write('{');
         boolean first = true;
 
         for (Map.Entry<?, ?> entry : map.entrySet()) {
             if (!first) {
-                sb.append(",");
+                out.write(',');
             }
             first = false;
 
-            sb.append("\"").append(escapeJson(entry.getKey().toString())).append("\":");
-            sb.append(toJson(entry.getValue()));
+            writeString(String.valueOf(entry.getKey()), out);
+            out.write(':');
+            serialize(entry.getValue(), out);
         }
 
-        return sb.append("}").toString();
+        out.write('}');
     }
 
-    private static String iterableToJson(Iterable<?> iterable) {
-        StringBuilder sb = new StringBuilder("[");
+    private void writeIterator(Iterator<?> iterator, Writer out) throws IOException {
+        out.write('[');
         boolean first = true;
 
-        for (Object item : iterable) {
+        while (iterator.hasNext()) {
             if (!first) {
-                sb.append(",");
+                out.write(',');
             }
             first = false;
-
-            sb.append(toJson(item));
+            serialize(iterator.next(), out);
         }
 
-        return sb.append("]").toString();
+        out.write(']');
     }
 
-    private static String arrayToJson(Object[] array) {
-        StringBuilder sb = new StringBuilder("[");
-
+    private void writeArray(Object[] array, Writer out) throws IOException {
+        out.write('[');
         for (int i = 0; i < array.length; i++) {
             if (i > 0) {
-                sb.append(",");
+                out.write(',');
             }
-            sb.append(toJson(array[i]));
+            serialize(array[i], out);
         }
-
-        return sb.append("]").toString();
+        out.write(']');
     }
 
-    private static String primitiveArrayToJson(Object array) {
+    private static void writePrimitiveArray(Object array, Writer out) throws IOException {
+        out.write('[');
         if (array instanceof int[]) {
-            return Arrays.toString((int[]) array).replace(" ", "");
+            int[] a = (int[]) array;
+            for (int i = 0; i < a.length; i++) {
+                if (i > 0)
+                    out.write(',');
+                out.write(Integer.toString(a[i]));
+            }
         } else if (array instanceof long[]) {
-            return Arrays.toString((long[]) array).replace(" ", "");
+            long[] a = (long[]) array;
+            for (int i = 0; i < a.length; i++) {
+                if (i > 0)
+                    out.write(',');
+                out.write(Long.toString(a[i]));
+            }
         } else if (array instanceof double[]) {
-            return Arrays.toString((double[]) array).replace(" ", "");
+            double[] a = (double[]) array;
+            for (int i = 0; i < a.length; i++) {
+                if (i > 0)
+                    out.write(',');
+                out.write(Double.isFinite(a[i]) ? Double.toString(a[i]) : "null");
+            }
         } else if (array instanceof float[]) {
-            return Arrays.toString((float[]) array).replace(" ", "");
+            float[] a = (float[]) array;
+            for (int i = 0; i < a.length; i++) {
+                if (i > 0)
+                    out.write(',');
+                out.write(Float.isFinite(a[i]) ? Float.toString(a[i]) : "null");
+            }
         } else if (array instanceof boolean[]) {
-            return Arrays.toString((boolean[]) array).replace(" ", "");
+            boolean[] a = (boolean[]) array;
+            for (int i = 0; i < a.length; i++) {
+                if (i > 0)
+                    out.write(',');
+                out.write(a[i] ? "true" : "false");
+            }
         } else if (array instanceof byte[]) {
-            return Arrays.toString((byte[]) array).replace(" ", "");
+            byte[] a = (byte[]) array;
+            for (int i = 0; i < a.length; i++) {
+                if (i > 0)
+                    out.write(',');
+                out.write(Integer.toString(a[i]));
+            }
         } else if (array instanceof short[]) {
-            return Arrays.toString((short[]) array).replace(" ", "");
+            short[] a = (short[]) array;
+            for (int i = 0; i < a.length; i++) {
+                if (i > 0)
+                    out.write(',');
+                out.write(Integer.toString(a[i]));
+            }
         } else if (array instanceof char[]) {
             // Pour char[], on veut les caractères entre guillemets
-            char[] chars = (char[]) array;
-            StringBuilder sb = new StringBuilder("[");
-            for (int i = 0; i < chars.length; i++) {
+            char[] a = (char[]) array;
+            for (int i = 0; i < a.length; i++) {
                 if (i > 0)
-                    sb.append(",");
-                sb.append("\"").append(chars[i]).append("\"");
+                    out.write(',');
+                writeString(String.valueOf(a[i]), out);
             }
-            return sb.append("]").toString();
         }
-        return "[]";
+        out.write(']');
     }
 
-    private static String objectToJson(Object obj) {
+    private void writeObject(Object obj, Writer out) throws IOException {
+        Property[] properties = PROPERTIES.get(obj.getClass());
+        if (properties == VALUE_TYPE) {
+            writeString(obj.toString(), out);
+            return;
+        }
+
+        out.write('{');
+        boolean first = true;
+
+        for (Property property : properties) {
+            Object value;
+            try {
+                value = property.getter.invokeExact(obj);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+
+            // Les champs null ne sont pas inclus
+            if (value != null) {
+                if (!first) {
+                    out.write(',');
+                }
+                first = false;
+
+                out.write(property.prefix);
+                serialize(value, out);
+            }
+        }
+
+        out.write('}');
+    }
+
+    // ==================== INTROSPECTION ====================
+
+    private static Property[] introspect(Class<?> type) {
+        if (type.getName().startsWith("java.") || type.getName().startsWith("javax.")) {
+            // LocalDate, UUID, BigDecimal... : écrits via toString
+            return VALUE_TYPE;
+        }
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodType generic = MethodType.methodType(Object.class, Object.class);
+        List<Property> properties = new ArrayList<>();
+
         try {
-            StringBuilder sb = new StringBuilder("{");
-            Class<?> clazz = obj.getClass();
-            Field[] fields = clazz.getDeclaredFields();
-            boolean first = true;
-
-            for (Field field : fields) {
-                field.setAccessible(true);
-                Object value = field.get(obj);
-
-                // Ne pas inclure les champs null si on veut
-                if (value != null) {
-                    if (!first) {
-                        sb.append(",");
+            if (type.isRecord()) {
+                for (RecordComponent component : type.getRecordComponents()) {
+                    Method accessor = component.getAccessor();
+                    accessor.setAccessible(true);
+                    Json json = component.getAnnotation(Json.class);
+                    String name = json != null && !json.value().isEmpty() ? json.value() : component.getName();
+                    properties.add(new Property(name, lookup.unreflect(accessor).asType(generic)));
+                }
+                return properties.toArray(new Property[0]);
+            }
+
+            Set<String> seen = new HashSet<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    int mod = field.getModifiers();
+                    if (Modifier.isStatic(mod) || Modifier.isTransient(mod) || field.isSynthetic()
+                            || !seen.add(field.getName())) {
+                        continue;
+                    }
+
+                    // Un getter public est préféré à l'accès direct au champ
+                    Method getter = findGetter(type, field);
+                    MethodHandle handle;
+                    if (getter != null) {
+                        handle = lookup.unreflect(getter);
+                    } else {
+                        field.setAccessible(true);
+                        handle = lookup.unreflectGetter(field);
                     }
-                    first = false;
 
-                    sb.append("\"").append(field.getName()).append("\":");
-                    sb.append(toJson(value));
+                    String name = field.getName();
+                    Json json = field.getAnnotation(Json.class);
+                    if (json == null && getter != null) {
+                        json = getter.getAnnotation(Json.class);
+                    }
+                    if (json != null && !json.value().isEmpty()) {
+                        name = json.value();
+                    }
+                    properties.add(new Property(name, handle.asType(generic)));
                 }
             }
+        } catch (RuntimeException | IllegalAccessException e) {
+            // Classe inaccessible (module fermé...) : écrite via toString
+            return VALUE_TYPE;
+        }
 
-            return sb.append("}").toString();
-        } catch (Exception e) {
-            return "\"" + escapeJson(obj.toString()) + "\"";
+        return properties.toArray(new Property[0]);
+    }
+
+    private static Method findGetter(Class<?> type, Field field) {
+        String name = field.getName();
+        String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        String[] candidates = field.getType() == boolean.class
+                ? new String[] { "is" + suffix, "get" + suffix }
+                : new String[] { "get" + suffix };
+        for (String candidate : candidates) {
+            try {
+                Method m = type.getMethod(candidate);
+                if (m.getReturnType() == field.getType() && Modifier.isPublic(m.getDeclaringClass().getModifiers())) {
+                    return m;
+                }
+            } catch (NoSuchMethodException e) {
+                // pas de getter
+            }
         }
+        return null;
+    }
+
+    // ==================== ÉCHAPPEMENT ====================
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Écrit la chaîne entre guillemets en l'échappant en une seule passe :
+     * les portions sans caractère spécial sont copiées d'un bloc.
+     */
+    public static void writeString(String str, Writer out) throws IOException {
+        out.write('"');
+        int start = 0;
+        int len = str.length();
+
+        for (int i = 0; i < len; i++) {
+            char c = str.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            if (i > start) {
+                out.write(str, start, i - start);
+            }
+            start = i + 1;
+
+            switch (c) {
+                case '"':
+                    out.write("\\\"");
+                    break;
+                case '\\':
+                    out.write("\\\\");
+                    break;
+                case '\n':
+                    out.write("\\n");
+                    break;
+                case '\r':
+                    out.write("\\r");
+                    break;
+                case '\t':
+                    out.write("\\t");
+                    break;
+                case '\b':
+                    out.write("\\b");
+                    break;
+                case '\f':
+                    out.write("\\f");
+                    break;
+                default:
+                    out.write("\\u00");
+                    out.write(HEX[c >> 4]);
+                    out.write(HEX[c & 0xF]);
+            }
+        }
+
+        if (start < len) {
+            out.write(str, start, len - start);
+        }
+        out.write('"');
     }
 
     private static String escapeJson(String str) {
         if (str == null)
             return "";
 
-        return str.replace("\\", "\\\\")
-                .replace("\"", "\\\"")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r")
-                .replace("\t", "\\t")
-                .replace("\b", "\\b")
-                .replace("\f", "\\f");
+        StringBuilderWriter out = new StringBuilderWriter();
+        try {
+            writeString(str, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String quoted = out.toString();
+        return quoted.substring(1, quoted.length() - 1);
+    }
+
+    /**
+     * Writer non synchronisé sur un StringBuilder (StringWriter utilise StringBuffer).
+     */
+    private static class StringBuilderWriter extends Writer {
+        private final StringBuilder sb = new StringBuilder(256);
+
+        @Override
+        public void write(int c) {
+            sb.append((char) c);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            sb.append(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            sb.append(str, off, off + len);
+        }
+
+        @Override
+        public void write(String str) {
+            sb.append(str);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return sb.toString();
+        }
     }
-}
\ No newline at end of file
+}
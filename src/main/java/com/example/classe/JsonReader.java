@@ -0,0 +1,332 @@
+package com.example.classe;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Lecteur JSON en flux : les jetons sont lus au fur et à mesure depuis le
+ * Reader (tampon de 8 Ko), sans jamais construire le document ni le corps
+ * complet en mémoire. Profondeur et longueur des chaînes sont bornées. Le découpage en objets est laissé à l'appelant :
+ *
+ * <pre>
+ * reader.beginObject();
+ * for (boolean first = true; reader.hasNext('}', first); first = false) {
+ *     String name = reader.nextName();
+ *     ... lire ou reader.skipValue() ...
+ * }
+ * </pre>
+ */
+public class JsonReader {
+
+    // Profondeur d'imbrication maximale acceptée (protège la pile)
+    public static final int MAX_DEPTH = 512;
+    // Longueur maximale d'une chaîne ou d'un nom (en caractères)
+    public static final int MAX_STRING_LENGTH = 1024 * 1024;
+
+    private final Reader in;
+    private final char[] buf = new char[8192];
+    private int pos = 0;
+    private int limit = 0;
+    private long consumed = 0;
+    private final StringBuilder text = new StringBuilder();
+
+    public JsonReader(Reader in) {
+        this.in = in;
+    }
+
+    // ==================== JETONS ====================
+
+    /**
+     * Premier caractère de la valeur suivante ({ [ " t f n chiffre -), ou -1
+     * en fin de flux. Rien n'est consommé.
+     */
+    public int peek() throws IOException {
+        skipWhitespace();
+        return fill() ? buf[pos] : -1;
+    }
+
+    public void beginObject() throws IOException {
+        expect('{');
+    }
+
+    public void beginArray() throws IOException {
+        expect('[');
+    }
+
+    /**
+     * Vrai s'il reste un élément avant close ('}' ou ']'), la virgule qui le
+     * précède étant consommée ; false après avoir consommé close.
+     */
+    public boolean hasNext(char close, boolean first) throws IOException {
+        int c = peek();
+        if (c == close) {
+            pos++;
+            return false;
+        }
+        if (!first) {
+            if (c != ',') {
+                throw error("',' ou '" + close + "' attendu");
+            }
+            pos++;
+        }
+        return true;
+    }
+
+    /**
+     * Nom de propriété, deux-points compris.
+     */
+    public String nextName() throws IOException {
+        String name = nextString();
+        expect(':');
+        return name;
+    }
+
+    public String nextString() throws IOException {
+        expect('"');
+        text.setLength(0);
+        while (true) {
+            if (!fill()) {
+                throw error("Chaîne non terminée");
+            }
+            // Recopier d'un bloc jusqu'au prochain guillemet ou échappement
+            int start = pos;
+            while (pos < limit && buf[pos] != '"' && buf[pos] != '\\') {
+                if (buf[pos] < 0x20) {
+                    throw error("Caractère de contrôle dans une chaîne");
+                }
+                pos++;
+            }
+            text.append(buf, start, pos - start);
+            if (text.length() > MAX_STRING_LENGTH) {
+                throw error("Chaîne trop longue (max " + MAX_STRING_LENGTH + " caractères)");
+            }
+            if (pos == limit) {
+                continue;
+            }
+            if (buf[pos++] == '"') {
+                return text.toString();
+            }
+            readEscape();
+        }
+    }
+
+    private void readEscape() throws IOException {
+        char c = nextChar();
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                text.append(c);
+                break;
+            case 'b':
+                text.append('\b');
+                break;
+            case 'f':
+                text.append('\f');
+                break;
+            case 'n':
+                text.append('\n');
+                break;
+            case 'r':
+                text.append('\r');
+                break;
+            case 't':
+                text.append('\t');
+                break;
+            case 'u':
+                int code = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(nextChar(), 16);
+                    if (digit < 0) {
+                        throw error("Échappement \\u invalide");
+                    }
+                    code = code * 16 + digit;
+                }
+                text.append((char) code);
+                break;
+            default:
+                throw error("Échappement invalide");
+        }
+    }
+
+    /**
+     * Texte d'un nombre JSON, vérifié mais pas converti : l'appelant choisit
+     * le type cible.
+     */
+    public String nextNumber() throws IOException {
+        skipWhitespace();
+        text.setLength(0);
+        while (fill()) {
+            char c = buf[pos];
+            if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') {
+                text.append(c);
+                pos++;
+            } else {
+                break;
+            }
+        }
+        if (text.length() == 0 || !isNumber(text)) {
+            throw error("Nombre invalide");
+        }
+        return text.toString();
+    }
+
+    private static boolean isNumber(CharSequence s) {
+        int i = 0;
+        int n = s.length();
+        if (i < n && s.charAt(i) == '-') {
+            i++;
+        }
+        int digits = i;
+        while (i < n && Character.isDigit(s.charAt(i))) {
+            i++;
+        }
+        if (i == digits) {
+            return false;
+        }
+        if (i < n && s.charAt(i) == '.') {
+            int frac = ++i;
+            while (i < n && Character.isDigit(s.charAt(i))) {
+                i++;
+            }
+            if (i == frac) {
+                return false;
+            }
+        }
+        if (i < n && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i++;
+            if (i < n && (s.charAt(i) == '+' || s.charAt(i) == '-')) {
+                i++;
+            }
+            int exp = i;
+            while (i < n && Character.isDigit(s.charAt(i))) {
+                i++;
+            }
+            if (i == exp) {
+                return false;
+            }
+        }
+        return i == n;
+    }
+
+    public boolean nextBoolean() throws IOException {
+        int c = peek();
+        if (c == 't') {
+            literal("true");
+            return true;
+        }
+        if (c == 'f') {
+            literal("false");
+            return false;
+        }
+        throw error("Booléen attendu");
+    }
+
+    public void nextNull() throws IOException {
+        literal("null");
+    }
+
+    private void literal(String word) throws IOException {
+        skipWhitespace();
+        for (int i = 0; i < word.length(); i++) {
+            if (nextChar() != word.charAt(i)) {
+                throw error("'" + word + "' attendu");
+            }
+        }
+    }
+
+    /**
+     * Ignore la valeur suivante, quelle que soit sa forme.
+     */
+    public void skipValue() throws IOException {
+        skipValue(0);
+    }
+
+    private void skipValue(int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw error("Document trop profond");
+        }
+        int c = peek();
+        switch (c) {
+            case '{':
+                pos++;
+                for (boolean first = true; hasNext('}', first); first = false) {
+                    nextName();
+                    skipValue(depth + 1);
+                }
+                break;
+            case '[':
+                pos++;
+                for (boolean first = true; hasNext(']', first); first = false) {
+                    skipValue(depth + 1);
+                }
+                break;
+            case '"':
+                nextString();
+                break;
+            case 't':
+            case 'f':
+                nextBoolean();
+                break;
+            case 'n':
+                nextNull();
+                break;
+            case -1:
+                throw error("Fin du corps inattendue");
+            default:
+                nextNumber();
+        }
+    }
+
+    // Vérifie la fin du document (seuls des blancs peuvent suivre)
+    public void endDocument() throws IOException {
+        if (peek() != -1) {
+            throw error("Contenu après la fin du document");
+        }
+    }
+
+    public JsonSyntaxException error(String message) {
+        return new JsonSyntaxException(message, consumed + pos);
+    }
+
+    // ==================== TAMPON ====================
+
+    private void expect(char c) throws IOException {
+        if (peek() != c) {
+            throw error("'" + c + "' attendu");
+        }
+        pos++;
+    }
+
+    private char nextChar() throws IOException {
+        if (!fill()) {
+            throw error("Fin du corps inattendue");
+        }
+        return buf[pos++];
+    }
+
+    private void skipWhitespace() throws IOException {
+        while (fill()) {
+            char c = buf[pos];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        if (pos < limit) {
+            return true;
+        }
+        consumed += limit;
+        pos = 0;
+        limit = 0;
+        int n = in.read(buf, 0, buf.length);
+        if (n <= 0) {
+            return false;
+        }
+        limit = n;
+        return true;
+    }
+}
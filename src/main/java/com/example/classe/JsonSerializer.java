@@ -0,0 +1,35 @@
+package com.example.classe;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+/**
+ * Moteur de sérialisation JSON utilisé pour toutes les réponses du framework.
+ *
+ * L'implémentation par défaut est {@link JsonConverter} ; une autre peut être
+ * déclarée avec l'init-param {@code json-serializer} de UrlServlet.
+ */
+public interface JsonSerializer {
+
+    /**
+     * Écrit la valeur en JSON dans le Writer.
+     */
+    void serialize(Object value, Writer out) throws IOException;
+
+    /**
+     * Enregistre un writer spécifique pour un type (et ses sous-types).
+     */
+    <T> void register(Class<T> type, JsonTypeWriter<? super T> writer);
+
+    default String serialize(Object value) {
+        StringWriter out = new StringWriter();
+        try {
+            serialize(value, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+}
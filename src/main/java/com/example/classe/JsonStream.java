@@ -0,0 +1,24 @@
+package com.example.classe;
+
+import java.io.IOException;
+
+/**
+ * Résultat JSON produit au fil de l'eau par une méthode {@code @Json} :
+ * chaque élément passé au {@link Sink} est écrit immédiatement dans la
+ * réponse, sous la forme d'un tableau JSON.
+ *
+ * <pre>
+ * return sink -&gt; {
+ *     for (Ligne l : dao.parcourir()) sink.add(l);
+ * };
+ * </pre>
+ */
+@FunctionalInterface
+public interface JsonStream {
+
+    void writeTo(Sink sink) throws Exception;
+
+    interface Sink {
+        void add(Object element) throws IOException;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.classe;
+
+import java.io.IOException;
+
+/**
+ * Corps JSON mal formé (ou trop profond) : réponse 400.
+ */
+public class JsonSyntaxException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final long position;
+
+    public JsonSyntaxException(String message, long position) {
+        super(message + " (caractère " + position + ")");
+        this.position = position;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+}
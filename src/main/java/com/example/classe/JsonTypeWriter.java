@@ -0,0 +1,13 @@
+package com.example.classe;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Écriture JSON personnalisée pour un type donné.
+ * Le sérialiseur est fourni pour écrire les valeurs imbriquées.
+ */
+@FunctionalInterface
+public interface JsonTypeWriter<T> {
+    void write(T value, Writer out, JsonSerializer json) throws IOException;
+}
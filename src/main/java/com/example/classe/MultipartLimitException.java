@@ -0,0 +1,15 @@
+package com.example.classe;
+
+import java.io.IOException;
+
+/**
+ * Requête multipart rejetée parce qu'elle dépasse une limite de la route
+ * (taille de fichier, nombre de parties ou taille totale) : réponse 413.
+ */
+public class MultipartLimitException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public MultipartLimitException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,405 @@
+package com.example.classe;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Lecture en flux d'un corps multipart/form-data : les parties sont rendues
+ * dans l'ordre d'arrivée, chacune peut être lue ou ignorée, rien n'est mis en
+ * tampon sur disque ni en mémoire. Les limites de la route sont vérifiées au
+ * fil de la lecture ({@link MultipartLimitException}).
+ *
+ * <pre>
+ * for (MultipartStream.StreamedPart part : parts) {
+ *     if (part.isFile()) part.transferTo(new File(dir, part.getFileName()));
+ * }
+ * </pre>
+ */
+public class MultipartStream implements Iterator<MultipartStream.StreamedPart>, Iterable<MultipartStream.StreamedPart> {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_HEADER_SIZE = 16 * 1024;
+
+    private final InputStream in;
+    private final byte[] delimiter; // \r\n--boundary
+    private final Charset charset;
+    private final long maxFileSize;
+    private final int maxParts;
+    private final long maxTotalSize;
+
+    private final byte[] buf = new byte[BUFFER_SIZE];
+    private int pos = 0;
+    private int limit = 0;
+    private boolean eof = false;
+
+    private long total = 0;
+    private int partCount = 0;
+    private StreamedPart current;
+    private StreamedPart nextPart;
+    private boolean finished = false;
+
+    public MultipartStream(InputStream in, String boundary, Charset charset,
+            long maxFileSize, int maxParts, long maxTotalSize) {
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        this.charset = charset != null ? charset : StandardCharsets.UTF_8;
+        this.maxFileSize = maxFileSize;
+        this.maxParts = maxParts;
+        this.maxTotalSize = maxTotalSize;
+
+        // Le premier délimiteur n'est pas précédé de \r\n : on l'ajoute
+        buf[0] = '\r';
+        buf[1] = '\n';
+        limit = 2;
+    }
+
+    /**
+     * Extrait le boundary d'un en-tête Content-Type multipart, ou null.
+     */
+    public static String boundaryOf(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        for (String param : contentType.split(";")) {
+            String p = param.trim();
+            if (p.regionMatches(true, 0, "boundary=", 0, 9)) {
+                String b = p.substring(9);
+                if (b.length() > 1 && b.startsWith("\"") && b.endsWith("\"")) {
+                    b = b.substring(1, b.length() - 1);
+                }
+                return b.isEmpty() ? null : b;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Iterator<StreamedPart> iterator() {
+        return this;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextPart != null) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+        try {
+            nextPart = readNextPart();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return nextPart != null;
+    }
+
+    @Override
+    public StreamedPart next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        current = nextPart;
+        nextPart = null;
+        return current;
+    }
+
+    private StreamedPart readNextPart() throws IOException {
+        // Ignorer la fin de la partie courante (ou le préambule)
+        if (current != null) {
+            current.skip();
+        } else {
+            skipToDelimiter();
+        }
+
+        // Après le délimiteur : "--" (fin) ou "\r\n" (partie suivante)
+        if (!ensure(2)) {
+            throw new IOException("Corps multipart tronqué");
+        }
+        if (buf[pos] == '-' && buf[pos + 1] == '-') {
+            finished = true;
+            return null;
+        }
+        skipLine();
+
+        if (maxParts >= 0 && ++partCount > maxParts) {
+            throw new MultipartLimitException("Trop de parties (max " + maxParts + ")");
+        }
+
+        Map<String, String> headers = readHeaders();
+        String disposition = headers.getOrDefault("content-disposition", "");
+        return new StreamedPart(
+                dispositionParam(disposition, "name"),
+                dispositionParam(disposition, "filename"),
+                headers.get("content-type"),
+                headers);
+    }
+
+    // ==================== LECTURE BAS NIVEAU ====================
+
+    /**
+     * Garantit au moins n octets disponibles dans le tampon (sauf fin du flux).
+     */
+    private boolean ensure(int n) throws IOException {
+        if (limit - pos >= n) {
+            return true;
+        }
+        if (pos > 0) {
+            System.arraycopy(buf, pos, buf, 0, limit - pos);
+            limit -= pos;
+            pos = 0;
+        }
+        while (limit - pos < n && !eof) {
+            int read = in.read(buf, limit, buf.length - limit);
+            if (read < 0) {
+                eof = true;
+            } else {
+                limit += read;
+                count(read);
+            }
+        }
+        return limit - pos >= n;
+    }
+
+    private void count(long bytes) throws MultipartLimitException {
+        total += bytes;
+        if (maxTotalSize >= 0 && total > maxTotalSize) {
+            throw new MultipartLimitException("Requête trop volumineuse (max " + maxTotalSize + " octets)");
+        }
+    }
+
+    /**
+     * Position du délimiteur dans le tampon à partir de pos, ou -1.
+     */
+    private int indexOfDelimiter() {
+        int last = limit - delimiter.length;
+        outer: for (int i = pos; i <= last; i++) {
+            if (buf[i] != '\r') {
+                continue;
+            }
+            for (int j = 1; j < delimiter.length; j++) {
+                if (buf[i + j] != delimiter[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Lit au plus len octets du corps de la partie courante. Retourne -1 quand
+     * le délimiteur est atteint (il est alors consommé).
+     */
+    private int readBody(byte[] b, int off, int len) throws IOException {
+        while (true) {
+            ensure(delimiter.length);
+            int index = indexOfDelimiter();
+            int available;
+            if (index >= 0) {
+                available = index - pos;
+            } else if (eof) {
+                throw new IOException("Corps multipart tronqué");
+            } else {
+                // Garder la fin du tampon : elle peut être le début du délimiteur
+                available = limit - pos - (delimiter.length - 1);
+            }
+
+            if (available > 0) {
+                int n = Math.min(len, available);
+                if (b != null) {
+                    System.arraycopy(buf, pos, b, off, n);
+                }
+                pos += n;
+                return n;
+            }
+            if (index >= 0) {
+                pos += delimiter.length;
+                return -1;
+            }
+            // Pas assez de données : forcer un remplissage
+            if (!ensure(limit - pos + 1)) {
+                throw new IOException("Corps multipart tronqué");
+            }
+        }
+    }
+
+    private void skipToDelimiter() throws IOException {
+        while (readBody(null, 0, Integer.MAX_VALUE) != -1) {
+            // préambule ignoré
+        }
+    }
+
+    private void skipLine() throws IOException {
+        while (ensure(1)) {
+            if (buf[pos++] == '\n') {
+                return;
+            }
+        }
+    }
+
+    private Map<String, String> readHeaders() throws IOException {
+        Map<String, String> headers = new HashMap<>();
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int size = 0;
+
+        while (true) {
+            if (!ensure(1)) {
+                throw new IOException("En-têtes multipart tronqués");
+            }
+            byte c = buf[pos++];
+            if (++size > MAX_HEADER_SIZE) {
+                throw new MultipartLimitException("En-têtes de partie trop longs");
+            }
+            if (c == '\n') {
+                String header = line.toString(charset).trim();
+                line.reset();
+                if (header.isEmpty()) {
+                    return headers;
+                }
+                int colon = header.indexOf(':');
+                if (colon > 0) {
+                    headers.put(header.substring(0, colon).trim().toLowerCase(Locale.ROOT),
+                            header.substring(colon + 1).trim());
+                }
+            } else if (c != '\r') {
+                line.write(c);
+            }
+        }
+    }
+
+    private static String dispositionParam(String disposition, String name) {
+        for (String param : disposition.split(";")) {
+            String p = param.trim();
+            int eq = p.indexOf('=');
+            if (eq > 0 && p.substring(0, eq).trim().equalsIgnoreCase(name)) {
+                String value = p.substring(eq + 1).trim();
+                if (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) {
+                    value = value.substring(1, value.length() - 1);
+                }
+                return value;
+            }
+        }
+        return null;
+    }
+
+    // ==================== PARTIE ====================
+
+    /**
+     * Une partie du corps multipart. Son contenu n'est lisible qu'une fois, et
+     * seulement tant que la partie suivante n'a pas été demandée.
+     */
+    public class StreamedPart {
+        private final String name;
+        private final String fileName;
+        private final String contentType;
+        private final Map<String, String> headers;
+        private final InputStream body;
+        private final byte[] one = new byte[1];
+        private long size = 0;
+        private boolean done = false;
+
+        StreamedPart(String name, String fileName, String contentType, Map<String, String> headers) {
+            this.name = name;
+            this.fileName = fileName;
+            this.contentType = contentType;
+            this.headers = headers;
+            this.body = new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    return read(one, 0, 1) == -1 ? -1 : one[0] & 0xFF;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    if (done) {
+                        return -1;
+                    }
+                    if (len == 0) {
+                        return 0;
+                    }
+                    int n = readBody(b, off, len);
+                    if (n == -1) {
+                        done = true;
+                        return -1;
+                    }
+                    size += n;
+                    if (isFile() && maxFileSize >= 0 && size > maxFileSize) {
+                        throw new MultipartLimitException(
+                                "Fichier " + fileName + " trop volumineux (max " + maxFileSize + " octets)");
+                    }
+                    return n;
+                }
+            };
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getHeader(String header) {
+            return headers.get(header.toLowerCase(Locale.ROOT));
+        }
+
+        public boolean isFile() {
+            return fileName != null;
+        }
+
+        /**
+         * Flux du contenu de la partie, à lire avant de passer à la suivante.
+         */
+        public InputStream getInputStream() {
+            return body;
+        }
+
+        /**
+         * Contenu texte d'un champ de formulaire.
+         */
+        public String getString() throws IOException {
+            return new String(body.readAllBytes(), charset);
+        }
+
+        public long transferTo(OutputStream out) throws IOException {
+            return body.transferTo(out);
+        }
+
+        public long transferTo(File destination) throws IOException {
+            return Files.copy(body, destination.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        /**
+         * Ignore le reste de la partie (les limites restent vérifiées).
+         */
+        public void skip() throws IOException {
+            byte[] scratch = null;
+            while (!done) {
+                if (isFile() && maxFileSize >= 0) {
+                    // Compter pour appliquer la limite de taille de fichier
+                    if (scratch == null) {
+                        scratch = new byte[8192];
+                    }
+                    body.read(scratch, 0, scratch.length);
+                } else if (readBody(null, 0, Integer.MAX_VALUE) == -1) {
+                    done = true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,471 @@
+package com.example.classe;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Cache des réponses des routes @Cached : LRU approché borné en octets,
+ * entrées avec durée de vie, invalidation explicite et regroupement des
+ * chargements simultanés d'une même clé.
+ *
+ * Les lectures ne prennent aucun verrou (ConcurrentHashMap, date du dernier
+ * accès notée sur l'entrée) ; le moniteur ne protège que les écritures et
+ * le compte des octets. Au-delà de la borne, les entrées les moins récemment
+ * lues sont évincées jusqu'à 90 % de la borne, en un seul passage.
+ *
+ * Disponible pour l'application dans l'attribut de contexte
+ * {@code ResponseCache.class.getName()} :
+ *
+ * <pre>
+ * cache.invalidate("/produits/{id}", "42"); // toutes les variantes de /produits/42
+ * cache.invalidate("/produits");            // toute la route
+ * </pre>
+ */
+public class ResponseCache {
+
+    public static final long DEFAULT_MAX_BYTES = 16 * 1024 * 1024;
+
+    // Séparateurs de clé : route \0 variable \0 variable \1 paramètres
+    private static final char SEP = '\0';
+    private static final char PARAMS = '\1';
+
+    private final long maxBytes;
+    private volatile long usedBytes = 0;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Entry>> loading = new ConcurrentHashMap<>();
+    // Incrémenté à chaque invalidation : un chargement commencé avant n'est pas conservé
+    private final AtomicLong generation = new AtomicLong();
+
+    public ResponseCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    @FunctionalInterface
+    public interface Loader {
+        /**
+         * Produit la réponse, ou null si elle ne doit pas être mise en cache.
+         */
+        Entry load() throws Exception;
+    }
+
+    public static String key(String routeUrl, String[] pathVars, String[] params, HttpServletRequest req) {
+        StringBuilder key = new StringBuilder(routeUrl);
+        for (String var : pathVars) {
+            key.append(SEP).append(var);
+        }
+        key.append(PARAMS);
+        for (String param : params) {
+            String[] values = req.getParameterValues(param);
+            key.append(param).append('=');
+            if (values != null) {
+                key.append(String.join(String.valueOf(SEP), values));
+            }
+            key.append(PARAMS);
+        }
+        return key.toString();
+    }
+
+    public Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (entry.expiresAt - now <= 0) {
+            removeExpired(key, entry);
+            return null;
+        }
+        entry.lastAccess = now;
+        return entry;
+    }
+
+    private synchronized void removeExpired(String key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            usedBytes -= entry.weight + key.length() * 2L;
+        }
+    }
+
+    /**
+     * Entrée de la clé, chargée si absente. Un seul appelant charge : les
+     * autres attendent son résultat, null s'il n'a rien produit de cachable
+     * ou a échoué (l'exception n'est levée que chez celui qui a chargé).
+     */
+    public Entry getOrLoad(String key, Loader loader) throws Exception {
+        return getOrLoad(key, loader, -1);
+    }
+
+    /**
+     * Comme {@link #getOrLoad(String, Loader)}, l'attente d'un chargement en
+     * cours étant bornée à timeoutMillis (-1 = sans limite) : passé ce délai
+     * l'appelant reçoit null et exécute la route lui-même.
+     */
+    public Entry getOrLoad(String key, Loader loader, long timeoutMillis) throws Exception {
+        Entry entry = get(key);
+        if (entry != null) {
+            return entry;
+        }
+
+        CompletableFuture<Entry> future = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = loading.putIfAbsent(key, future);
+        if (existing != null) {
+            if (timeoutMillis < 0) {
+                return existing.join();
+            }
+            try {
+                return existing.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                return null;
+            }
+        }
+
+        long startGeneration = generation.get();
+        entry = null;
+        try {
+            entry = loader.load();
+            if (entry != null) {
+                put(key, entry, startGeneration);
+            }
+            return entry;
+        } finally {
+            loading.remove(key, future);
+            future.complete(entry);
+        }
+    }
+
+    private synchronized void put(String key, Entry entry, long startGeneration) {
+        if (generation.get() != startGeneration || entry.weight > maxBytes / 4) {
+            return;
+        }
+        Entry old = entries.put(key, entry);
+        long used = usedBytes + entry.weight + key.length() * 2L;
+        if (old != null) {
+            used -= old.weight + key.length() * 2L;
+        }
+        usedBytes = used;
+        if (used > maxBytes) {
+            evict();
+        }
+    }
+
+    // Évincer les moins récemment lues jusqu'à 90 % de la borne
+    private void evict() {
+        // Dates relevées une fois : les lectures continuent pendant le tri
+        List<Candidate> candidates = new ArrayList<>(entries.size());
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            candidates.add(new Candidate(e.getKey(), e.getValue(), e.getValue().lastAccess));
+        }
+        candidates.sort(Comparator.comparingLong(Candidate::lastAccess));
+        long target = maxBytes - maxBytes / 10;
+        long used = usedBytes;
+        for (Candidate c : candidates) {
+            if (used <= target) {
+                break;
+            }
+            if (entries.remove(c.key(), c.entry())) {
+                used -= c.entry().weight + c.key().length() * 2L;
+            }
+        }
+        usedBytes = used;
+    }
+
+    private record Candidate(String key, Entry entry, long lastAccess) {
+    }
+
+    /**
+     * Supprime les entrées d'une route (motif déclaré, ex: "/produits/{id}"),
+     * restreintes aux variables de chemin données s'il y en a.
+     */
+    public synchronized void invalidate(String routeUrl, String... pathVars) {
+        generation.incrementAndGet();
+        StringBuilder prefix = new StringBuilder(routeUrl);
+        for (String var : pathVars) {
+            prefix.append(SEP).append(var);
+        }
+        String p = prefix.toString();
+
+        long used = usedBytes;
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            String key = e.getKey();
+            if (key.startsWith(p) && key.length() > p.length()
+                    && (key.charAt(p.length()) == SEP || key.charAt(p.length()) == PARAMS)
+                    && entries.remove(key, e.getValue())) {
+                used -= e.getValue().weight + key.length() * 2L;
+            }
+        }
+        usedBytes = used;
+    }
+
+    public synchronized void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    // ==================== ENTRÉE ====================
+
+    /**
+     * Réponse mémorisée : statut, type, en-têtes et corps déjà sérialisé.
+     */
+    public static class Entry {
+        final int status;
+        final String contentType;
+        final List<String[]> headers;
+        final byte[] body;
+        final long expiresAt;
+        final long weight;
+        // Dernière lecture (nanoTime), pour l'éviction
+        volatile long lastAccess;
+
+        Entry(int status, String contentType, List<String[]> headers, byte[] body, long ttlMillis) {
+            this.status = status;
+            this.contentType = contentType;
+            this.headers = headers;
+            this.body = body;
+            this.lastAccess = System.nanoTime();
+            this.expiresAt = lastAccess + ttlMillis * 1_000_000L;
+            long w = body.length + 64;
+            for (String[] h : headers) {
+                w += (h[0].length() + h[1].length()) * 2L + 32;
+            }
+            this.weight = w;
+        }
+
+        public String getHeader(String name) {
+            for (String[] h : headers) {
+                if (h[0].equalsIgnoreCase(name)) {
+                    return h[1];
+                }
+            }
+            return null;
+        }
+
+        public void writeTo(HttpServletResponse resp) throws IOException {
+            resp.setStatus(status);
+            for (String[] h : headers) {
+                resp.addHeader(h[0], h[1]);
+            }
+            if (contentType != null) {
+                resp.setContentType(contentType);
+            }
+            resp.setContentLength(body.length);
+            resp.getOutputStream().write(body);
+        }
+    }
+
+    // ==================== CAPTURE ====================
+
+    /**
+     * Réponse qui garde le corps en mémoire. Statut et en-têtes sont transmis à
+     * la réponse réelle et notés ; sendError et sendRedirect passent
+     * directement (et rendent la réponse non cachable).
+     */
+    public static class Capture extends HttpServletResponseWrapper {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private final List<String[]> headers = new ArrayList<>();
+        private ServletOutputStream output;
+        private PrintWriter writer;
+        private int status = SC_OK;
+        private boolean passedThrough = false;
+        private boolean used = false;
+
+        public Capture(HttpServletResponse response) {
+            super(response);
+        }
+
+        /**
+         * Vrai si la réponse a été produite dans cette capture (l'appelant a
+         * chargé la clé lui-même).
+         */
+        public boolean isUsed() {
+            return used;
+        }
+
+        /**
+         * Entrée cachable (statut 200), ou null.
+         */
+        public Entry toEntry(long ttlMillis) {
+            used = true;
+            flushWriter();
+            if (passedThrough || status != SC_OK) {
+                return null;
+            }
+            return new Entry(status, getContentType(), new ArrayList<>(headers), buffer.toByteArray(), ttlMillis);
+        }
+
+        /**
+         * Envoie le corps capturé à la réponse réelle (en-têtes déjà transmis).
+         */
+        public void flushTo(HttpServletResponse resp) throws IOException {
+            flushWriter();
+            if (passedThrough) {
+                return;
+            }
+            resp.setContentLength(buffer.size());
+            buffer.writeTo(resp.getOutputStream());
+        }
+
+        private void flushWriter() {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (output == null) {
+                output = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) {
+                        buffer.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) {
+                        buffer.write(b, off, len);
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        throw new UnsupportedOperationException("Réponse en cache : écriture bloquante uniquement");
+                    }
+                };
+            }
+            return output;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(buffer, Charset.forName(getCharacterEncoding())));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setStatus(int sc) {
+            status = sc;
+            super.setStatus(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            status = sc;
+            passedThrough = true;
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            status = sc;
+            passedThrough = true;
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            status = SC_FOUND;
+            passedThrough = true;
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            headers.removeIf(h -> h[0].equalsIgnoreCase(name));
+            headers.add(new String[] { name, value });
+            super.setHeader(name, value);
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            headers.add(new String[] { name, value });
+            super.addHeader(name, value);
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            setHeader(name, String.valueOf(value));
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+            addHeader(name, String.valueOf(value));
+        }
+
+        @Override
+        public void setDateHeader(String name, long date) {
+            setHeader(name, formatDate(date));
+        }
+
+        @Override
+        public void addDateHeader(String name, long date) {
+            addHeader(name, formatDate(date));
+        }
+
+        private static String formatDate(long date) {
+            return DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                    ZonedDateTime.ofInstant(Instant.ofEpochMilli(date), ZoneOffset.UTC));
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            // Longueur fixée à l'envoi du corps capturé
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+        }
+
+        @Override
+        public void flushBuffer() {
+            flushWriter();
+        }
+
+        @Override
+        public void resetBuffer() {
+            flushWriter();
+            buffer.reset();
+        }
+
+        @Override
+        public void reset() {
+            resetBuffer();
+            headers.clear();
+            status = SC_OK;
+            super.reset();
+        }
+
+        @Override
+        public boolean isCommitted() {
+            return passedThrough && super.isCommitted();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.classe;
+
+import java.net.MalformedURLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.servlet.ServletContext;
+
+/**
+ * Index des ressources statiques de l'application, construit au démarrage à
+ * partir de {@link ServletContext#getResourcePaths(String)} : savoir si un
+ * chemin est un fichier statique ne coûte qu'une recherche en mémoire.
+ *
+ * Si l'index ne peut pas être construit (conteneur qui ne liste pas les
+ * ressources, application trop volumineuse) ou est désactivé, les appels à
+ * getResource sont mémorisés dans un cache borné, positifs comme négatifs.
+ * {@link #refresh()} reconstruit l'index après un redéploiement à chaud.
+ */
+public class StaticResources {
+
+    public static final int MAX_INDEX_SIZE = 50_000;
+
+    private final ServletContext context;
+    private final boolean indexEnabled;
+    private final int maxLookups;
+
+    // Fichiers et répertoires publiés ensemble ; null sans index
+    private volatile Index index;
+    private final Map<String, Boolean> lookups = new ConcurrentHashMap<>();
+
+    public StaticResources(ServletContext context, boolean indexEnabled, int maxLookups) {
+        this.context = context;
+        this.indexEnabled = indexEnabled;
+        this.maxLookups = maxLookups;
+        refresh();
+    }
+
+    public boolean isIndexed() {
+        return index != null;
+    }
+
+    /**
+     * Vrai si le chemin est un fichier de l'index.
+     */
+    public boolean isFile(String path) {
+        Index current = index;
+        return current != null ? current.files.contains(path) : exists(path);
+    }
+
+    /**
+     * Vrai si le chemin est un répertoire de l'index (page d'accueil du
+     * servlet par défaut). Toujours faux sans index : exists couvre les deux.
+     */
+    public boolean isDirectory(String path) {
+        Index current = index;
+        return current != null && current.directories.contains(path);
+    }
+
+    /**
+     * getResource mémorisé, pour le mode sans index.
+     */
+    public boolean exists(String path) {
+        Index current = index;
+        if (current != null) {
+            return current.files.contains(path) || current.directories.contains(path);
+        }
+        Boolean known = lookups.get(path);
+        if (known != null) {
+            return known;
+        }
+        boolean found;
+        try {
+            found = context.getResource(path) != null;
+        } catch (MalformedURLException e) {
+            found = false;
+        }
+        if (lookups.size() >= maxLookups) {
+            lookups.clear();
+        }
+        lookups.put(path, found);
+        return found;
+    }
+
+    public synchronized void refresh() {
+        lookups.clear();
+        if (!indexEnabled) {
+            index = null;
+            return;
+        }
+
+        Set<String> f = new HashSet<>();
+        Set<String> d = new HashSet<>();
+        d.add("/");
+        index = collect("/", f, d) ? new Index(f, d) : null;
+    }
+
+    // Parcours des ressources ; false si le conteneur ne les liste pas ou s'il y en a trop
+    private boolean collect(String dir, Set<String> f, Set<String> d) {
+        Set<String> children = context.getResourcePaths(dir);
+        if (children == null) {
+            return !dir.equals("/");
+        }
+        for (String child : children) {
+            if (child.startsWith("/WEB-INF/") || child.startsWith("/META-INF/")) {
+                continue;
+            }
+            if (child.endsWith("/")) {
+                d.add(child);
+                d.add(child.substring(0, child.length() - 1));
+                if (!collect(child, f, d)) {
+                    return false;
+                }
+            } else {
+                f.add(child);
+            }
+            if (f.size() + d.size() > MAX_INDEX_SIZE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Index {
+        final Set<String> files;
+        final Set<String> directories;
+
+        Index(Set<String> files, Set<String> directories) {
+            this.files = Collections.unmodifiableSet(files);
+            this.directories = Collections.unmodifiableSet(directories);
+        }
+    }
+}
@@ -0,0 +1,574 @@
+package com.example.classe;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Template compilé une fois en arbre d'instructions. Les fragments statiques
+ * sont encodés en UTF-8 à la compilation et copiés tels quels dans la
+ * réponse ; seules les valeurs dynamiques sont encodées au rendu.
+ *
+ * <pre>
+ * {{titre}}                       valeur échappée (HTML)
+ * {{{html}}}                      valeur brute
+ * {{user.name}}                   Map, getter, accesseur de record ou champ public
+ * {{#each items as item}}...{{else}}...{{/each}}
+ * {{#if admin}}...{{else}}...{{/if}}     (aussi {{#unless x}})
+ * {{> /WEB-INF/views/header.tpl}}
+ * {{! commentaire }}
+ * </pre>
+ *
+ * Un nom est cherché dans les variables de boucle, puis le modèle, puis les
+ * attributs de la requête.
+ */
+public class Template {
+    private final String name;
+    private final Node[] nodes;
+
+    private Template(String name, Node[] nodes) {
+        this.name = name;
+        this.nodes = nodes;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void render(Map<String, Object> model, HttpServletRequest req, Output out, TemplateEngine engine)
+            throws IOException {
+        render(new Context(model, req, out, engine));
+    }
+
+    void render(Context ctx) throws IOException {
+        for (Node node : nodes) {
+            node.render(ctx);
+        }
+    }
+
+    // ==================== COMPILATION ====================
+
+    public static Template compile(String name, String source) {
+        Deque<Block> open = new ArrayDeque<>();
+        Block root = new Block(null, null, null, 0);
+        open.push(root);
+
+        int pos = 0;
+        while (pos < source.length()) {
+            int start = source.indexOf("{{", pos);
+            if (start < 0) {
+                open.peek().add(source.substring(pos));
+                break;
+            }
+            if (start > pos) {
+                open.peek().add(source.substring(pos, start));
+            }
+            boolean raw = source.startsWith("{{{", start);
+            String closing = raw ? "}}}" : "}}";
+            int end = source.indexOf(closing, start + closing.length());
+            if (end < 0) {
+                throw error(name, source, start, "balise non fermée");
+            }
+            String tag = source.substring(start + closing.length(), end).trim();
+            pos = end + closing.length();
+
+            if (tag.isEmpty()) {
+                throw error(name, source, start, "balise vide");
+            }
+            if (raw) {
+                open.peek().add(new Value(Path.of(tag), false));
+                continue;
+            }
+            switch (tag.charAt(0)) {
+                case '!':
+                    break;
+                case '>':
+                    open.peek().add(new Include(tag.substring(1).trim()));
+                    break;
+                case '#': {
+                    String[] words = tag.substring(1).trim().split("\\s+");
+                    String kind = words[0];
+                    if (kind.equals("each") && (words.length == 2 || words.length == 4 && words[2].equals("as"))) {
+                        open.push(new Block(kind, Path.of(words[1]), words.length == 4 ? words[3] : "this", start));
+                    } else if ((kind.equals("if") || kind.equals("unless")) && words.length == 2) {
+                        open.push(new Block(kind, Path.of(words[1]), null, start));
+                    } else {
+                        throw error(name, source, start, "bloc invalide {{" + tag + "}}");
+                    }
+                    break;
+                }
+                case '/': {
+                    Block block = open.peek();
+                    if (block == root || !block.kind.equals(tag.substring(1).trim())) {
+                        throw error(name, source, start, "fermeture inattendue {{" + tag + "}}");
+                    }
+                    open.pop();
+                    open.peek().add(block.toNode());
+                    break;
+                }
+                default:
+                    if (tag.equals("else")) {
+                        if (open.peek() == root) {
+                            throw error(name, source, start, "{{else}} hors d'un bloc");
+                        }
+                        open.peek().otherwise = new ArrayList<>();
+                    } else {
+                        open.peek().add(new Value(Path.of(tag), true));
+                    }
+            }
+        }
+        if (open.peek() != root) {
+            throw error(name, source, open.peek().start, "bloc {{#" + open.peek().kind + "}} non fermé");
+        }
+        return new Template(name, root.toArray(root.body));
+    }
+
+    private static IllegalStateException error(String name, String source, int at, String message) {
+        int line = 1;
+        for (int i = 0; i < at; i++) {
+            if (source.charAt(i) == '\n') {
+                line++;
+            }
+        }
+        return new IllegalStateException("Template " + name + " ligne " + line + " : " + message);
+    }
+
+    // Bloc en cours de compilation
+    private static class Block {
+        final String kind;
+        final Path path;
+        final String var;
+        final int start;
+        final List<Node> body = new ArrayList<>();
+        List<Node> otherwise;
+
+        Block(String kind, Path path, String var, int start) {
+            this.kind = kind;
+            this.path = path;
+            this.var = var;
+            this.start = start;
+        }
+
+        void add(String text) {
+            List<Node> target = otherwise != null ? otherwise : body;
+            // Fusion avec le texte précédent (commentaires retirés)
+            if (!target.isEmpty() && target.get(target.size() - 1) instanceof Text) {
+                Text previous = (Text) target.remove(target.size() - 1);
+                text = new String(previous.bytes, StandardCharsets.UTF_8) + text;
+            }
+            target.add(new Text(text.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        void add(Node node) {
+            (otherwise != null ? otherwise : body).add(node);
+        }
+
+        Node toNode() {
+            Node[] main = toArray(body);
+            Node[] alt = otherwise != null ? toArray(otherwise) : new Node[0];
+            if (kind.equals("each")) {
+                return new Each(path, var, main, alt);
+            }
+            return kind.equals("if") ? new If(path, main, alt) : new If(path, alt, main);
+        }
+
+        Node[] toArray(List<Node> list) {
+            return list.toArray(new Node[0]);
+        }
+    }
+
+    // ==================== INSTRUCTIONS ====================
+
+    interface Node {
+        void render(Context ctx) throws IOException;
+    }
+
+    private static class Text implements Node {
+        final byte[] bytes;
+
+        Text(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void render(Context ctx) throws IOException {
+            ctx.out.write(bytes);
+        }
+    }
+
+    private static class Value implements Node {
+        final Path path;
+        final boolean escape;
+
+        Value(Path path, boolean escape) {
+            this.path = path;
+            this.escape = escape;
+        }
+
+        @Override
+        public void render(Context ctx) throws IOException {
+            Object value = path.resolve(ctx);
+            if (value != null) {
+                ctx.out.write(value.toString(), escape);
+            }
+        }
+    }
+
+    private static class If implements Node {
+        final Path path;
+        final Node[] then;
+        final Node[] otherwise;
+
+        If(Path path, Node[] then, Node[] otherwise) {
+            this.path = path;
+            this.then = then;
+            this.otherwise = otherwise;
+        }
+
+        @Override
+        public void render(Context ctx) throws IOException {
+            for (Node node : isTruthy(path.resolve(ctx)) ? then : otherwise) {
+                node.render(ctx);
+            }
+        }
+
+        private static boolean isTruthy(Object value) {
+            if (value == null || Boolean.FALSE.equals(value)) {
+                return false;
+            }
+            if (value instanceof CharSequence) {
+                return ((CharSequence) value).length() > 0;
+            }
+            if (value instanceof Collection) {
+                return !((Collection<?>) value).isEmpty();
+            }
+            if (value instanceof Map) {
+                return !((Map<?, ?>) value).isEmpty();
+            }
+            if (value.getClass().isArray()) {
+                return Array.getLength(value) > 0;
+            }
+            return true;
+        }
+    }
+
+    private static class Each implements Node {
+        final Path path;
+        final String var;
+        final Node[] body;
+        final Node[] empty;
+
+        Each(Path path, String var, Node[] body, Node[] empty) {
+            this.path = path;
+            this.var = var;
+            this.body = body;
+            this.empty = empty;
+        }
+
+        @Override
+        public void render(Context ctx) throws IOException {
+            Object items = path.resolve(ctx);
+            boolean any = false;
+            if (items instanceof Map) {
+                items = ((Map<?, ?>) items).entrySet();
+            }
+            if (items instanceof Iterable) {
+                for (Object item : (Iterable<?>) items) {
+                    any = true;
+                    renderItem(ctx, item);
+                }
+            } else if (items != null && items.getClass().isArray()) {
+                int length = Array.getLength(items);
+                for (int i = 0; i < length; i++) {
+                    any = true;
+                    renderItem(ctx, Array.get(items, i));
+                }
+            }
+            if (!any) {
+                for (Node node : empty) {
+                    node.render(ctx);
+                }
+            }
+        }
+
+        private void renderItem(Context ctx, Object item) throws IOException {
+            ctx.push(var, item);
+            try {
+                for (Node node : body) {
+                    node.render(ctx);
+                }
+            } finally {
+                ctx.pop();
+            }
+        }
+    }
+
+    private static class Include implements Node {
+        final String view;
+
+        Include(String view) {
+            this.view = view;
+        }
+
+        @Override
+        public void render(Context ctx) throws IOException {
+            if (++ctx.includeDepth > 32) {
+                throw new IllegalStateException("Inclusions trop profondes : " + view);
+            }
+            try {
+                ctx.engine.template(view).render(ctx);
+            } finally {
+                ctx.includeDepth--;
+            }
+        }
+    }
+
+    // ==================== RÉSOLUTION DES NOMS ====================
+
+    private static class Path {
+        final String[] segments;
+
+        private Path(String[] segments) {
+            this.segments = segments;
+        }
+
+        static Path of(String expression) {
+            return new Path(expression.split("\\."));
+        }
+
+        Object resolve(Context ctx) {
+            Object value = ctx.lookup(segments[0]);
+            for (int i = 1; i < segments.length && value != null; i++) {
+                value = property(value, segments[i]);
+            }
+            return value;
+        }
+    }
+
+    private static Object property(Object target, String name) {
+        if (target instanceof Map) {
+            return ((Map<?, ?>) target).get(name);
+        }
+        if (target instanceof List && !name.isEmpty() && Character.isDigit(name.charAt(0))) {
+            List<?> list = (List<?>) target;
+            int index = Integer.parseInt(name);
+            return index < list.size() ? list.get(index) : null;
+        }
+        MethodHandle getter = ACCESSORS.get(target.getClass()).get(name);
+        if (getter == null) {
+            return null;
+        }
+        try {
+            return getter.invokeExact(target);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    // Accesseurs par classe : getX()/isX(), accesseurs de record, champs publics
+    private static final ClassValue<Map<String, MethodHandle>> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Map<String, MethodHandle> computeValue(Class<?> type) {
+            Map<String, MethodHandle> accessors = new HashMap<>();
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodType generic = MethodType.methodType(Object.class, Object.class);
+
+            for (Field field : type.getFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    try {
+                        accessors.put(field.getName(), lookup.unreflectGetter(field).asType(generic));
+                    } catch (IllegalAccessException e) {
+                        // ignoré
+                    }
+                }
+            }
+            if (type.isRecord()) {
+                for (RecordComponent component : type.getRecordComponents()) {
+                    put(accessors, lookup, component.getName(), component.getAccessor(), generic);
+                }
+            }
+            for (Method method : type.getMethods()) {
+                String name = method.getName();
+                if (method.getParameterCount() != 0 || Modifier.isStatic(method.getModifiers())
+                        || method.getReturnType() == void.class || method.getDeclaringClass() == Object.class) {
+                    continue;
+                }
+                if (name.startsWith("get") && name.length() > 3) {
+                    put(accessors, lookup, decapitalize(name.substring(3)), method, generic);
+                } else if (name.startsWith("is") && name.length() > 2 && method.getReturnType() == boolean.class) {
+                    put(accessors, lookup, decapitalize(name.substring(2)), method, generic);
+                }
+            }
+            return accessors;
+        }
+
+        private void put(Map<String, MethodHandle> accessors, MethodHandles.Lookup lookup, String name,
+                Method method, MethodType generic) {
+            try {
+                method.setAccessible(true);
+                accessors.put(name, lookup.unreflect(method).asType(generic));
+            } catch (RuntimeException | IllegalAccessException e) {
+                // Classe inaccessible (module fermé...) : propriété ignorée
+            }
+        }
+    };
+
+    private static String decapitalize(String name) {
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    // ==================== CONTEXTE DE RENDU ====================
+
+    static class Context {
+        final Map<String, Object> model;
+        final HttpServletRequest request;
+        final Output out;
+        final TemplateEngine engine;
+        int includeDepth;
+
+        // Variables de boucle (pile, sans allocation par itération)
+        private String[] names = new String[8];
+        private Object[] values = new Object[8];
+        private int size;
+
+        Context(Map<String, Object> model, HttpServletRequest request, Output out, TemplateEngine engine) {
+            this.model = model != null ? model : Collections.emptyMap();
+            this.request = request;
+            this.out = out;
+            this.engine = engine;
+        }
+
+        void push(String name, Object value) {
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            names[size] = name;
+            values[size++] = value;
+        }
+
+        void pop() {
+            values[--size] = null;
+        }
+
+        Object lookup(String name) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (names[i].equals(name)) {
+                    return values[i];
+                }
+            }
+            Object value = model.get(name);
+            if (value == null && request != null) {
+                value = request.getAttribute(name);
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Sortie tamponnée en UTF-8 : les fragments statiques sont copiés, les
+     * valeurs encodées (et échappées) caractère par caractère sans String
+     * intermédiaire.
+     */
+    public static class Output {
+        private final OutputStream out;
+        private final byte[] buf = new byte[8192];
+        private int count;
+
+        public Output(OutputStream out) {
+            this.out = out;
+        }
+
+        public void write(byte[] bytes) throws IOException {
+            if (bytes.length > buf.length - count) {
+                flushBuffer();
+                if (bytes.length > buf.length) {
+                    out.write(bytes);
+                    return;
+                }
+            }
+            System.arraycopy(bytes, 0, buf, count, bytes.length);
+            count += bytes.length;
+        }
+
+        public void write(String text, boolean escape) throws IOException {
+            int length = text.length();
+            for (int i = 0; i < length; i++) {
+                char c = text.charAt(i);
+                if (count > buf.length - 8) {
+                    flushBuffer();
+                }
+                if (c < 0x80) {
+                    if (escape) {
+                        switch (c) {
+                            case '<':
+                                ascii("&lt;");
+                                continue;
+                            case '>':
+                                ascii("&gt;");
+                                continue;
+                            case '&':
+                                ascii("&amp;");
+                                continue;
+                            case '"':
+                                ascii("&quot;");
+                                continue;
+                            case '\'':
+                                ascii("&#39;");
+                                continue;
+                            default:
+                        }
+                    }
+                    buf[count++] = (byte) c;
+                } else if (c < 0x800) {
+                    buf[count++] = (byte) (0xC0 | c >> 6);
+                    buf[count++] = (byte) (0x80 | c & 0x3F);
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, text.charAt(++i));
+                    buf[count++] = (byte) (0xF0 | cp >> 18);
+                    buf[count++] = (byte) (0x80 | cp >> 12 & 0x3F);
+                    buf[count++] = (byte) (0x80 | cp >> 6 & 0x3F);
+                    buf[count++] = (byte) (0x80 | cp & 0x3F);
+                } else if (Character.isSurrogate(c)) {
+                    buf[count++] = '?';
+                } else {
+                    buf[count++] = (byte) (0xE0 | c >> 12);
+                    buf[count++] = (byte) (0x80 | c >> 6 & 0x3F);
+                    buf[count++] = (byte) (0x80 | c & 0x3F);
+                }
+            }
+        }
+
+        private void ascii(String entity) {
+            for (int i = 0; i < entity.length(); i++) {
+                buf[count++] = (byte) entity.charAt(i);
+            }
+        }
+
+        private void flushBuffer() throws IOException {
+            if (count > 0) {
+                out.write(buf, 0, count);
+                count = 0;
+            }
+        }
+
+        public void flush() throws IOException {
+            flushBuffer();
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.classe;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Moteur intégré des vues ".tpl" (voir {@link Template} pour la syntaxe).
+ *
+ * Chaque template est compilé à la première utilisation puis gardé en
+ * mémoire. En mode développement (init-param {@code template-dev-mode}),
+ * la date de modification est vérifiée au plus une fois par seconde et le
+ * template recompilé s'il a changé.
+ */
+public class TemplateEngine implements ViewEngine {
+    private static final long CHECK_INTERVAL = 1000;
+
+    private final ServletContext context;
+    private final boolean devMode;
+    private final Map<String, Compiled> cache = new ConcurrentHashMap<>();
+
+    public TemplateEngine(ServletContext context, boolean devMode) {
+        this.context = context;
+        this.devMode = devMode;
+    }
+
+    @Override
+    public String[] extensions() {
+        return new String[] { "tpl" };
+    }
+
+    @Override
+    public void render(String view, Map<String, Object> model, HttpServletRequest req, HttpServletResponse resp)
+            throws IOException {
+        Template template = template(view);
+        if (resp.getContentType() == null) {
+            resp.setContentType("text/html");
+        }
+        resp.setCharacterEncoding("UTF-8");
+        Template.Output out = new Template.Output(resp.getOutputStream());
+        template.render(model, req, out, this);
+        out.flush();
+    }
+
+    /**
+     * Template compilé de la vue (compilé au premier appel).
+     */
+    public Template template(String view) throws IOException {
+        Compiled compiled = cache.get(view);
+        if (compiled != null && (!devMode || !compiled.isStale())) {
+            return compiled.template;
+        }
+        compiled = load(view);
+        cache.put(view, compiled);
+        return compiled.template;
+    }
+
+    /**
+     * Oublie les templates compilés (rechargés au prochain rendu).
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    private Compiled load(String view) throws IOException {
+        URL url = context.getResource(view);
+        if (url == null) {
+            throw new FileNotFoundException("Vue introuvable : " + view);
+        }
+        long lastModified = devMode ? lastModified(url) : 0;
+        String source;
+        try (InputStream in = url.openStream()) {
+            source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        return new Compiled(Template.compile(view, source), url, lastModified);
+    }
+
+    private static long lastModified(URL url) {
+        try {
+            return url.openConnection().getLastModified();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static class Compiled {
+        final Template template;
+        final URL url;
+        final long lastModified;
+        volatile long checkedAt = System.currentTimeMillis();
+
+        Compiled(Template template, URL url, long lastModified) {
+            this.template = template;
+            this.url = url;
+            this.lastModified = lastModified;
+        }
+
+        boolean isStale() {
+            long now = System.currentTimeMillis();
+            if (now - checkedAt < CHECK_INTERVAL) {
+                return false;
+            }
+            checkedAt = now;
+            return lastModified(url) != lastModified;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.classe;
+
+/**
+ * Conversion d'une valeur de requête (paramètre, variable de chemin) vers un
+ * type cible. À enregistrer avec {@link Converters#register} avant
+ * l'initialisation de UrlServlet.
+ */
+@FunctionalInterface
+public interface TypeConverter<T> {
+    T convert(String value) throws Exception;
+}
@@ -1,59 +1,151 @@
 package com.example.classe;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.*;
 
+import jakarta.servlet.http.Part;
+
+/**
+ * Fichier reçu dans une requête multipart.
+ *
+ * Le contenu peut être relu autant de fois que nécessaire : il est lu depuis
+ * la Part du conteneur (qui fournit un nouveau flux à chaque appel), ou, pour
+ * un flux à lecture unique, conservé en mémoire jusqu'au seuil puis déversé
+ * dans un fichier temporaire. Les copies vers une destination passent par
+ * {@link Part#write(String)} ou {@link FileChannel#transferTo}.
+ */
 public class UploadedFile {
+    public static final long DEFAULT_SPILL_THRESHOLD = 1024 * 1024;
+
     private String fileName;
     private String contentType;
     private long size;
+    private long spillThreshold;
+
+    // Sources : Part du conteneur (relisible) ou flux à lecture unique
+    private Part part;
     private InputStream inputStream;
+
+    // Contenu conservé : en mémoire (sous le seuil) ou sur disque
+    private byte[] memory;
     private File tempFile;
+    private boolean ownsTempFile;
 
     public UploadedFile(String fileName, String contentType,
             long size, InputStream inputStream) {
+        this(fileName, contentType, size, inputStream, DEFAULT_SPILL_THRESHOLD);
+    }
+
+    public UploadedFile(String fileName, String contentType,
+            long size, InputStream inputStream, long spillThreshold) {
         this.fileName = fileName;
         this.contentType = contentType;
         this.size = size;
         this.inputStream = inputStream;
+        this.spillThreshold = spillThreshold;
+    }
+
+    public UploadedFile(Part part) {
+        this(part, DEFAULT_SPILL_THRESHOLD);
+    }
+
+    public UploadedFile(Part part, long spillThreshold) {
+        this.fileName = part.getSubmittedFileName();
+        this.contentType = part.getContentType();
+        this.size = part.getSize();
+        this.part = part;
+        this.spillThreshold = spillThreshold;
     }
 
     // Crée un File temporaire (sur demande)
     public File getAsFile() throws IOException {
-        if (tempFile == null && inputStream != null) {
-            tempFile = Files.createTempFile("upload_", "_" + fileName).toFile();
-            tempFile.deleteOnExit();
-
-            try (FileOutputStream fos = new FileOutputStream(tempFile)) {
-                byte[] buffer = new byte[1024];
-                int bytesRead;
-                while ((bytesRead = inputStream.read(buffer)) != -1) {
-                    fos.write(buffer, 0, bytesRead);
+        if (tempFile == null) {
+            File file = Files.createTempFile("upload_", "_" + safeName()).toFile();
+            file.deleteOnExit();
+            if (memory != null) {
+                Files.write(file.toPath(), memory);
+            } else {
+                try (InputStream in = openSource()) {
+                    size = Files.copy(in, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
                 }
             }
+            setTempFile(file, true);
         }
         return tempFile;
     }
 
     // Sauvegarder
     public void saveTo(String destinationPath) throws IOException {
-        File destFile = new File(destinationPath);
-        Files.copy(getInputStream(), destFile.toPath(),
-                StandardCopyOption.REPLACE_EXISTING);
+        transferTo(new File(destinationPath));
     }
 
     // Sauvegarder vers un File
     public void saveTo(File destinationFile) throws IOException {
-        Files.copy(getInputStream(), destinationFile.toPath(),
-                StandardCopyOption.REPLACE_EXISTING);
+        transferTo(destinationFile);
+    }
+
+    /**
+     * Copie le contenu vers la destination sans passer par le tas quand c'est
+     * possible : fichier temporaire → FileChannel.transferTo, Part du
+     * conteneur → Part.write (souvent un simple déplacement du fichier).
+     */
+    public void transferTo(File destination) throws IOException {
+        Path dest = destination.toPath();
+
+        if (tempFile != null && Files.exists(dest) && Files.isSameFile(tempFile.toPath(), dest)) {
+            return;
+        }
+        if (tempFile != null) {
+            try (FileChannel src = FileChannel.open(tempFile.toPath(), StandardOpenOption.READ);
+                    FileChannel dst = FileChannel.open(dest, StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                long position = 0;
+                long total = src.size();
+                while (position < total) {
+                    position += src.transferTo(position, total - position, dst);
+                }
+            }
+        } else if (memory != null) {
+            Files.write(dest, memory);
+        } else if (part != null) {
+            part.write(destination.getAbsolutePath());
+            // Le conteneur a pu déplacer son fichier : relire depuis la destination
+            part = null;
+            setTempFile(destination, false);
+        } else if (inputStream != null) {
+            size = Files.copy(inputStream, dest, StandardCopyOption.REPLACE_EXISTING);
+            inputStream = null;
+            setTempFile(destination, false);
+        }
     }
 
     // Lire en bytes
     public byte[] getBytes() throws IOException {
-        if (inputStream != null) {
-            return inputStream.readAllBytes();
+        if (memory != null) {
+            return memory.clone();
+        }
+        try (InputStream in = getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Vue en lecture seule du contenu, projetée en mémoire pour les fichiers
+     * sur disque (aucune copie dans le tas).
+     */
+    public ByteBuffer getMappedBuffer() throws IOException {
+        if (memory == null && tempFile == null && inputStream != null) {
+            buffer();
+        }
+        if (memory != null) {
+            return ByteBuffer.wrap(memory).asReadOnlyBuffer();
+        }
+        File file = getAsFile();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
         }
-        return new byte[0];
     }
 
     // Getters
@@ -69,20 +161,50 @@ public class UploadedFile {
         return size;
     }
 
+    public long getSpillThreshold() {
+        return spillThreshold;
+    }
+
+    public void setSpillThreshold(long spillThreshold) {
+        this.spillThreshold = spillThreshold;
+    }
+
+    /**
+     * Consomme tout de suite un flux à lecture unique (partie d'un corps lu
+     * en flux, qui doit l'être avant la partie suivante).
+     */
+    public void load() throws IOException {
+        if (memory == null && tempFile == null && part == null && inputStream != null) {
+            buffer();
+        }
+    }
+
+    /**
+     * Retourne un nouveau flux positionné au début du contenu à chaque appel.
+     */
     public InputStream getInputStream() {
-        if (inputStream != null) {
-            try {
-                inputStream.reset();
-            } catch (Exception e) {
-                // Reset non supporté, on retourne le stream tel quel
+        try {
+            if (memory == null && tempFile == null && part == null && inputStream != null) {
+                buffer();
             }
+            if (memory != null) {
+                return new ByteArrayInputStream(memory);
+            }
+            if (tempFile != null) {
+                return Files.newInputStream(tempFile.toPath());
+            }
+            if (part != null) {
+                return part.getInputStream();
+            }
+            return InputStream.nullInputStream();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return inputStream;
     }
 
     // Nettoyage
     public void cleanup() {
-        if (tempFile != null && tempFile.exists()) {
+        if (tempFile != null && ownsTempFile && tempFile.exists()) {
             tempFile.delete();
         }
         if (inputStream != null) {
@@ -92,10 +214,71 @@ public class UploadedFile {
                 // Ignorer
             }
         }
+        if (part != null) {
+            try {
+                part.delete();
+            } catch (IOException e) {
+                // Ignorer
+            }
+        }
+    }
+
+    /**
+     * Consomme le flux à lecture unique : en mémoire jusqu'au seuil, puis
+     * déversé dans un fichier temporaire.
+     */
+    private void buffer() throws IOException {
+        InputStream in = inputStream;
+        inputStream = null;
+
+        byte[] head = in.readNBytes((int) Math.min(spillThreshold, Integer.MAX_VALUE - 8));
+        int next = head.length < spillThreshold ? -1 : in.read();
+        if (next == -1) {
+            memory = head;
+            size = head.length;
+            in.close();
+            return;
+        }
+
+        File file = Files.createTempFile("upload_", "_" + safeName()).toFile();
+        file.deleteOnExit();
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file.toPath()), 64 * 1024)) {
+            out.write(head);
+            out.write(next);
+            size = head.length + 1 + in.transferTo(out);
+        } finally {
+            in.close();
+        }
+        setTempFile(file, true);
+    }
+
+    private InputStream openSource() throws IOException {
+        if (part != null) {
+            return part.getInputStream();
+        }
+        if (inputStream != null) {
+            InputStream in = inputStream;
+            inputStream = null;
+            return in;
+        }
+        return InputStream.nullInputStream();
+    }
+
+    private void setTempFile(File file, boolean owned) {
+        if (tempFile != null && ownsTempFile && !tempFile.equals(file)) {
+            tempFile.delete();
+        }
+        this.tempFile = file;
+        this.ownsTempFile = owned;
+        this.memory = null;
+    }
+
+    private String safeName() {
+        return fileName == null ? "file" : fileName.replaceAll("[^A-Za-z0-9._-]", "_");
     }
 
     @Override
     public String toString() {
         return "UploadedFile{fileName='" + fileName + "', size=" + size + "}";
     }
-}
\ No newline at end of file
+}
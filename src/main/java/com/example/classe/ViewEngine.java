@@ -0,0 +1,31 @@
+package com.example.classe;
+
+import java.io.IOException;
+import java.util.Map;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Moteur de rendu des {@link ModelVue}, choisi par l'extension du nom de vue
+ * ("/WEB-INF/views/home.tpl" → moteur de l'extension "tpl"). Sans moteur pour
+ * l'extension, la vue est transmise au conteneur (JSP).
+ *
+ * Les moteurs sont déclarés par ServiceLoader
+ * (META-INF/services/com.example.classe.ViewEngine), par l'init-param
+ * {@code view-engines} de UrlServlet ou enregistrés dans {@link ViewEngines}.
+ */
+public interface ViewEngine {
+
+    /**
+     * Extensions traitées, sans le point.
+     */
+    String[] extensions();
+
+    /**
+     * Écrit la vue dans la réponse. Le modèle contient les données du
+     * ModelVue ; les attributs de la requête restent accessibles.
+     */
+    void render(String view, Map<String, Object> model, HttpServletRequest req, HttpServletResponse resp)
+            throws IOException;
+}
@@ -0,0 +1,36 @@
+package com.example.classe;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Moteurs de vue indexés par extension. Exposé dans le ServletContext sous
+ * le nom de la classe pour l'enregistrement par l'application.
+ */
+public class ViewEngines {
+    private final Map<String, ViewEngine> byExtension = new ConcurrentHashMap<>();
+
+    /**
+     * Enregistre le moteur pour ses extensions (remplace le précédent).
+     */
+    public void register(ViewEngine engine) {
+        for (String extension : engine.extensions()) {
+            byExtension.put(extension.toLowerCase(Locale.ROOT), engine);
+        }
+    }
+
+    /**
+     * Moteur de la vue, ou null pour un forward vers le conteneur.
+     */
+    public ViewEngine forView(String view) {
+        if (view == null || byExtension.isEmpty()) {
+            return null;
+        }
+        int dot = view.lastIndexOf('.');
+        if (dot < 0 || view.indexOf('/', dot) >= 0) {
+            return null;
+        }
+        return byExtension.get(view.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+}
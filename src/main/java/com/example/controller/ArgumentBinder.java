@@ -0,0 +1,447 @@
+package com.example.controller;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import com.example.annotation.Body;
+import com.example.annotation.Multipart;
+import com.example.classe.ConversionException;
+import com.example.classe.Converters;
+import com.example.classe.MultipartStream;
+import com.example.classe.TypeConverter;
+import com.example.classe.UploadedFile;
+import com.example.controller.ScannerController.RouteData;
+
+/**
+ * Résout la valeur d'un paramètre de méthode de contrôleur.
+ *
+ * Le plan (un binder par paramètre) est construit au démarrage par
+ * {@link #plan(RouteData)} : à l'exécution seules les valeurs réellement
+ * demandées par la méthode sont lues et converties.
+ */
+public abstract class ArgumentBinder {
+
+    public abstract Object bind(RequestContext ctx) throws Exception;
+
+    public static ArgumentBinder[] plan(RouteData route) {
+        ArgumentBinder[] binders = new ArgumentBinder[route.parameters.length];
+
+        // Corps JSON : paramètre @Body (liste, tableau... sans passer par la
+        // liaison de formulaire), sinon premier objet ou Map (qui garde la
+        // liaison de formulaire quand la requête n'est pas en JSON)
+        int body = -1;
+        for (int i = 0; i < binders.length && body < 0; i++) {
+            if (route.parameters[i].isAnnotationPresent(Body.class)) {
+                body = i;
+                binders[i] = new JsonBodyBinder(route.parameters[i].getParameterizedType(), null);
+            }
+        }
+        for (int i = 0; i < binders.length; i++) {
+            if (i != body) {
+                binders[i] = forParameter(route, i);
+            }
+        }
+        for (int i = 0; i < binders.length && body < 0; i++) {
+            if (binders[i] instanceof PojoBinder || binders[i] instanceof MapBinder) {
+                body = i;
+                binders[i] = new JsonBodyBinder(route.parameters[i].getParameterizedType(), binders[i]);
+            }
+        }
+        checkStreaming(route, binders);
+        return binders;
+    }
+
+    /**
+     * En mode flux, le corps n'est lisible qu'une fois : un autre paramètre
+     * lu depuis la requête (paramètres, fichiers, corps JSON) le consommerait
+     * ou le trouverait vide. Seules les variables de chemin sont permises.
+     */
+    private static void checkStreaming(RouteData route, ArgumentBinder[] binders) {
+        int streams = 0;
+        for (ArgumentBinder binder : binders) {
+            if (binder instanceof MultipartStreamBinder) {
+                streams++;
+            }
+        }
+        if (streams == 0) {
+            return;
+        }
+        for (int i = 0; i < binders.length; i++) {
+            if (binders[i] instanceof PathVarBinder
+                    || (binders[i] instanceof MultipartStreamBinder && streams == 1)) {
+                continue;
+            }
+            throw new IllegalStateException(route.method.getDeclaringClass().getSimpleName() + "."
+                    + route.method.getName() + " : le paramètre " + route.parameterNames[i]
+                    + " lit la requête, incompatible avec MultipartStream (lire les champs dans le flux)");
+        }
+    }
+
+    private static ArgumentBinder forParameter(RouteData route, int index) {
+        String name = route.parameterNames[index];
+        Class<?> type = route.parameterTypes[index];
+        Type generic = route.parameters[index].getParameterizedType();
+
+        // 1. Map de toutes les valeurs
+        if (type.equals(Map.class)) {
+            return new MapBinder(route);
+        }
+
+        // 2. Fichiers uploadés
+        if (type.equals(UploadedFile.class)) {
+            return new UploadBinder(name);
+        }
+        if (type.equals(List.class) && elementType(generic) == UploadedFile.class) {
+            return new UploadListBinder(name);
+        }
+
+        if (type.equals(MultipartStream.class)) {
+            return new MultipartStreamBinder(route.multipart);
+        }
+
+        // 3. Variable de chemin
+        for (int slot = 0; slot < route.pathVarNames.length; slot++) {
+            if (route.pathVarNames[slot].equals(name)) {
+                return new PathVarBinder(name, slot, type);
+            }
+        }
+
+        // 4. Paramètres multivalués
+        if (type.isArray()) {
+            return new ArrayBinder(name, type.getComponentType());
+        }
+        if (type.equals(List.class)) {
+            Class<?> element = elementType(generic);
+            return new ListBinder(name, element != null ? element : String.class);
+        }
+
+        // 5. Objet complexe
+        if (isComplexObject(type)) {
+            return new PojoBinder(type);
+        }
+
+        // 6. Paramètre de requête (nom du paramètre ou @Request)
+        return new ParamBinder(name, type);
+    }
+
+    private static Class<?> elementType(Type generic) {
+        if (generic instanceof ParameterizedType) {
+            Type[] args = ((ParameterizedType) generic).getActualTypeArguments();
+            if (args.length == 1 && args[0] instanceof Class) {
+                return (Class<?>) args[0];
+            }
+        }
+        return null;
+    }
+
+    static boolean isComplexObject(Class<?> type) {
+        return !type.isPrimitive() &&
+                !type.isArray() &&
+                !Converters.supports(type) &&
+                !type.equals(UploadedFile.class) &&
+                !type.equals(MultipartStream.class) &&
+                !Map.class.isAssignableFrom(type) &&
+                !List.class.isAssignableFrom(type);
+    }
+
+    /**
+     * Convertisseur résolu au scan : un type sans conversion connue est une
+     * erreur de déclaration de la route, signalée au démarrage.
+     */
+    static TypeConverter<?> converterFor(Class<?> type, String name) {
+        TypeConverter<?> converter = Converters.forType(type);
+        if (converter == null) {
+            throw new IllegalStateException("Aucune conversion vers " + type.getName()
+                    + " pour le paramètre " + name + " (voir Converters.register)");
+        }
+        return converter;
+    }
+
+    static Object convert(TypeConverter<?> converter, String value, Class<?> type, String name) {
+        try {
+            Object converted = Converters.convert(converter, value, type);
+            return converted != null ? converted : defaultValue(type);
+        } catch (ConversionException e) {
+            throw e.withParameter(name);
+        }
+    }
+
+    /**
+     * Conversion sans plan (Map, objets liés par BeanBinder) : le
+     * convertisseur est lu dans le cache du registre.
+     */
+    static Object convert(String value, Class<?> type) {
+        TypeConverter<?> converter = Converters.forType(type);
+        if (converter == null) {
+            return value;
+        }
+        Object converted = Converters.convert(converter, value, type);
+        return converted != null ? converted : defaultValue(type);
+    }
+
+    static Object defaultValue(Class<?> type) {
+        if (type == int.class)
+            return 0;
+        if (type == long.class)
+            return 0L;
+        if (type == boolean.class)
+            return false;
+        if (type == double.class)
+            return 0.0;
+        if (type == float.class)
+            return 0.0f;
+        if (type == byte.class)
+            return (byte) 0;
+        if (type == short.class)
+            return (short) 0;
+        if (type == char.class)
+            return '\0';
+        return null;
+    }
+
+    // ==================== BINDERS ====================
+
+    static class PathVarBinder extends ArgumentBinder {
+        private final String name;
+        private final int slot;
+        private final Class<?> type;
+        private final TypeConverter<?> converter;
+
+        PathVarBinder(String name, int slot, Class<?> type) {
+            this.name = name;
+            this.slot = slot;
+            this.type = type;
+            this.converter = converterFor(type, name);
+        }
+
+        @Override
+        public Object bind(RequestContext ctx) {
+            return convert(converter, ctx.pathVars[slot], type, name);
+        }
+    }
+
+    static class ParamBinder extends ArgumentBinder {
+        private final String name;
+        private final Class<?> type;
+
+        private final TypeConverter<?> converter;
+
+        ParamBinder(String name, Class<?> type) {
+            this.name = name;
+            this.type = type;
+            this.converter = converterFor(type, name);
+        }
+
+        @Override
+        public Object bind(RequestContext ctx) {
+            String[] values = ctx.getParameterValues(name);
+            if (values != null && values.length > 0) {
+                return convert(converter, values[0], type, name);
+            }
+
+            // Attribut de requête posé en amont (filtre, forward...)
+            Object attrValue = ctx.request.getAttribute(name);
+            if (attrValue != null && type.isInstance(attrValue)) {
+                return attrValue;
+            }
+
+            return defaultValue(type);
+        }
+    }
+
+    static class ArrayBinder extends ArgumentBinder {
+        private final String name;
+        private final Class<?> componentType;
+
+        private final TypeConverter<?> converter;
+
+        ArrayBinder(String name, Class<?> componentType) {
+            this.name = name;
+            this.componentType = componentType;
+            this.converter = converterFor(componentType, name);
+        }
+
+        @Override
+        public Object bind(RequestContext ctx) {
+            String[] values = ctx.getParameterValues(name);
+            if (values == null) {
+                return Array.newInstance(componentType, 0);
+            }
+            if (componentType == String.class) {
+                return values.clone();
+            }
+            Object array = Array.newInstance(componentType, values.length);
+            for (int i = 0; i < values.length; i++) {
+                Array.set(array, i, convert(converter, values[i], componentType, name));
+            }
+            return array;
+        }
+    }
+
+    static class ListBinder extends ArgumentBinder {
+        private final String name;
+        private final Class<?> elementType;
+
+        private final TypeConverter<?> converter;
+
+        ListBinder(String name, Class<?> elementType) {
+            this.name = name;
+            this.elementType = elementType;
+            this.converter = converterFor(elementType, name);
+        }
+
+        @Override
+        public Object bind(RequestContext ctx) {
+            String[] values = ctx.getParameterValues(name);
+            List<Object> list = new ArrayList<>(values != null ? values.length : 0);
+            if (values != null) {
+                for (String value : values) {
+                    list.add(convert(converter, value, elementType, name));
+                }
+            }
+            return list;
+        }
+    }
+
+    static class UploadBinder extends ArgumentBinder {
+        private final String name;
+
+        UploadBinder(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Object bind(RequestContext ctx) {
+            return ctx.getUploadedFiles().get(name);
+        }
+    }
+
+    static class UploadListBinder extends ArgumentBinder {
+        private final String name;
+        private final String indexedPrefix;
+
+        UploadListBinder(String name) {
+            this.name = name;
+            this.indexedPrefix = name + "[";
+        }
+
+        @Override
+        public Object bind(RequestContext ctx) {
+            // Chercher tous les fichiers avec ce nom (pour les tableaux)
+            List<UploadedFile> files = new ArrayList<>();
+            for (Map.Entry<String, UploadedFile> entry : ctx.getUploadedFiles().entrySet()) {
+                if (entry.getKey().equals(name) || entry.getKey().startsWith(indexedPrefix)) {
+                    files.add(entry.getValue());
+                }
+            }
+            return files;
+        }
+    }
+
+    static class MultipartStreamBinder extends ArgumentBinder {
+        private final long maxFileSize;
+        private final int maxParts;
+        private final long maxTotalSize;
+
+        MultipartStreamBinder(Multipart limits) {
+            this.maxFileSize = limits != null ? limits.maxFileSize() : -1;
+            this.maxParts = limits != null ? limits.maxParts() : -1;
+            this.maxTotalSize = limits != null ? limits.maxTotalSize() : -1;
+        }
+
+        @Override
+        public Object bind(RequestContext ctx) throws Exception {
+            String boundary = MultipartStream.boundaryOf(ctx.request.getContentType());
+            if (boundary == null) {
+                return null;
+            }
+            String encoding = ctx.request.getCharacterEncoding();
+            return new MultipartStream(ctx.request.getInputStream(), boundary,
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8,
+                    maxFileSize, maxParts, maxTotalSize);
+        }
+    }
+
+    static class MapBinder extends ArgumentBinder {
+        private final RouteData route;
+
+        MapBinder(RouteData route) {
+            this.route = route;
+        }
+
+        @Override
+        public Object bind(RequestContext ctx) {
+            Map<String, Object> allValues = new HashMap<>();
+
+            // 1. Variables de chemin
+            for (int i = 0; i < ctx.pathVars.length; i++) {
+                String key = route.pathVarNames[i];
+                Class<?> expectedType = route.paramTypes.getOrDefault(key, String.class);
+                allValues.put(key, convertNamed(ctx.pathVars[i], expectedType, key));
+            }
+
+            // 2. Paramètres de requête texte
+            for (Map.Entry<String, String[]> entry : ctx.getParameterMap().entrySet()) {
+                String key = entry.getKey();
+                String[] values = entry.getValue();
+
+                if (values != null && values.length > 0) {
+                    Class<?> expectedType = route.paramTypes.getOrDefault(key, String.class);
+                    if (values.length == 1 && !isComplexObject(expectedType)) {
+                        allValues.put(key, convertNamed(values[0], expectedType, key));
+                    } else if (values.length == 1) {
+                        allValues.put(key, values[0]);
+                    } else {
+                        allValues.put(key, Arrays.copyOf(values, values.length, Object[].class));
+                    }
+                }
+            }
+
+            return allValues;
+        }
+
+        private static Object convertNamed(String value, Class<?> type, String name) {
+            try {
+                return convert(value, type);
+            } catch (ConversionException e) {
+                throw e.withParameter(name);
+            }
+        }
+    }
+
+    static class PojoBinder extends ArgumentBinder {
+        private final BeanBinder beanBinder;
+
+        PojoBinder(Class<?> type) {
+            this.beanBinder = BeanBinder.of(type);
+        }
+
+        @Override
+        public Object bind(RequestContext ctx) {
+            return beanBinder.bind(ctx.getParameterMap());
+        }
+    }
+
+    static class JsonBodyBinder extends ArgumentBinder {
+        private final Type type;
+        private final ArgumentBinder fallback;
+
+        JsonBodyBinder(Type type, ArgumentBinder fallback) {
+            this.type = type;
+            this.fallback = fallback;
+        }
+
+        @Override
+        public Object bind(RequestContext ctx) throws Exception {
+            if (ctx.isJson()) {
+                Object value = JsonBodyReader.read(ctx.openBodyReader(), type);
+                return value != null ? value : defaultValue(JsonBodyReader.rawType(type));
+            }
+            return fallback != null ? fallback.bind(ctx) : defaultValue(JsonBodyReader.rawType(type));
+        }
+    }
+}
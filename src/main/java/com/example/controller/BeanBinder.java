@@ -0,0 +1,238 @@
+package com.example.controller;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.*;
+
+import com.example.classe.ConversionException;
+
+/**
+ * Construit un objet à partir des paramètres d'un formulaire.
+ *
+ * Un binder est calculé une seule fois par classe (constructeur et accès aux
+ * champs compilés en MethodHandle), puis réutilisé pour chaque requête.
+ * Les noms imbriqués ({@code address.city}) et les listes indexées
+ * ({@code items[0].qty}, {@code tags[1]}) sont supportés.
+ */
+public class BeanBinder {
+
+    private static final ClassValue<BeanBinder> CACHE = new ClassValue<BeanBinder>() {
+        @Override
+        protected BeanBinder computeValue(Class<?> type) {
+            return new BeanBinder(type);
+        }
+    };
+
+    static class Property {
+        final Class<?> type;
+        final Class<?> elementType; // pour List<E> (String par défaut)
+        final MethodHandle getter;  // (Object) -> Object
+        final MethodHandle setter;  // (Object, Object) -> void
+
+        Property(Class<?> type, Class<?> elementType, MethodHandle getter, MethodHandle setter) {
+            this.type = type;
+            this.elementType = elementType;
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+
+    // Borne des index de liste acceptés, pour qu'un items[999999999] ne gonfle pas le tas
+    private static final int MAX_INDEX = 10_000;
+
+    private final Class<?> type;
+    private final MethodHandle constructor; // () -> Object, null si non instanciable
+    private final Map<String, Property> properties = new HashMap<>();
+
+    public static BeanBinder of(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    private BeanBinder(Class<?> type) {
+        this.type = type;
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        this.constructor = findConstructor(lookup, type);
+
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                int mod = field.getModifiers();
+                if (Modifier.isStatic(mod) || Modifier.isFinal(mod) || properties.containsKey(field.getName())) {
+                    continue;
+                }
+                try {
+                    field.setAccessible(true);
+                    MethodHandle getter = lookup.unreflectGetter(field)
+                            .asType(MethodType.methodType(Object.class, Object.class));
+                    MethodHandle setter = lookup.unreflectSetter(field)
+                            .asType(MethodType.methodType(void.class, Object.class, Object.class));
+                    properties.put(field.getName(),
+                            new Property(field.getType(), elementType(field.getGenericType()), getter, setter));
+                } catch (RuntimeException | IllegalAccessException e) {
+                    // Champ inaccessible (module fermé...) : ignoré
+                }
+            }
+        }
+    }
+
+    private static MethodHandle findConstructor(MethodHandles.Lookup lookup, Class<?> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers()) || type.isRecord()) {
+            return null;
+        }
+        try {
+            Constructor<?> ctor = type.getDeclaredConstructor();
+            ctor.setAccessible(true);
+            return lookup.unreflectConstructor(ctor).asType(MethodType.methodType(Object.class));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Class<?> elementType(Type generic) {
+        if (generic instanceof ParameterizedType) {
+            Type[] args = ((ParameterizedType) generic).getActualTypeArguments();
+            if (args.length == 1 && args[0] instanceof Class) {
+                return (Class<?>) args[0];
+            }
+        }
+        return String.class;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public boolean isInstantiable() {
+        return constructor != null;
+    }
+
+    public Object newInstance() {
+        try {
+            return constructor.invokeExact();
+        } catch (Throwable t) {
+            throw new IllegalStateException("Impossible d'instancier " + type.getName(), t);
+        }
+    }
+
+    /**
+     * Crée une instance et la remplit avec les paramètres. Retourne null si la
+     * classe n'a pas de constructeur sans argument.
+     */
+    public Object bind(Map<String, String[]> params) {
+        if (constructor == null) {
+            return null;
+        }
+        Object instance = newInstance();
+        for (Map.Entry<String, String[]> entry : params.entrySet()) {
+            String[] values = entry.getValue();
+            if (values != null && values.length > 0) {
+                apply(instance, entry.getKey(), 0, values);
+            }
+        }
+        return instance;
+    }
+
+    // Applique la valeur au chemin key[pos..] sur l'objet courant
+    private void apply(Object target, String key, int pos, String[] values) {
+        int end = pos;
+        int len = key.length();
+        while (end < len && key.charAt(end) != '.' && key.charAt(end) != '[') {
+            end++;
+        }
+        Property prop = properties.get(key.substring(pos, end));
+        if (prop == null) {
+            return;
+        }
+
+        try {
+            // 1. Feuille : valeur simple, tableau ou liste de valeurs
+            if (end == len) {
+                prop.setter.invokeExact(target, convertLeaf(prop, values));
+                return;
+            }
+
+            // 2. Objet imbriqué : address.city
+            if (key.charAt(end) == '.') {
+                BeanBinder nested = of(prop.type);
+                if (nested.constructor == null) {
+                    return;
+                }
+                Object child = (Object) prop.getter.invokeExact(target);
+                if (child == null) {
+                    child = nested.newInstance();
+                    prop.setter.invokeExact(target, child);
+                }
+                nested.apply(child, key, end + 1, values);
+                return;
+            }
+
+            // 3. Liste indexée : items[0].qty ou tags[1]
+            int close = key.indexOf(']', end);
+            if (close < 0 || !List.class.isAssignableFrom(prop.type)) {
+                return;
+            }
+            int index = Integer.parseInt(key, end + 1, close, 10);
+            if (index < 0 || index > MAX_INDEX) {
+                return;
+            }
+
+            @SuppressWarnings("unchecked")
+            List<Object> list = (List<Object>) (Object) prop.getter.invokeExact(target);
+            if (list == null) {
+                list = new ArrayList<>();
+                prop.setter.invokeExact(target, (Object) list);
+            }
+            while (list.size() <= index) {
+                list.add(null);
+            }
+
+            if (close + 1 == len) {
+                list.set(index, ArgumentBinder.convert(values[0], prop.elementType));
+            } else if (key.charAt(close + 1) == '.') {
+                BeanBinder nested = of(prop.elementType);
+                if (nested.constructor == null) {
+                    return;
+                }
+                Object element = list.get(index);
+                if (element == null) {
+                    element = nested.newInstance();
+                    list.set(index, element);
+                }
+                nested.apply(element, key, close + 2, values);
+            }
+        } catch (ConversionException e) {
+            throw e.withParameter(key);
+        } catch (NumberFormatException | ClassCastException e) {
+            // Index invalide : paramètre ignoré
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private static Object convertLeaf(Property prop, String[] values) {
+        if (prop.type.isArray()) {
+            Class<?> component = prop.type.getComponentType();
+            Object array = Array.newInstance(component, values.length);
+            for (int i = 0; i < values.length; i++) {
+                Array.set(array, i, ArgumentBinder.convert(values[i], component));
+            }
+            return array;
+        }
+        if (List.class.isAssignableFrom(prop.type)) {
+            List<Object> list = new ArrayList<>(values.length);
+            for (String value : values) {
+                list.add(ArgumentBinder.convert(value, prop.elementType));
+            }
+            return list;
+        }
+        return ArgumentBinder.convert(values[0], prop.type);
+    }
+}
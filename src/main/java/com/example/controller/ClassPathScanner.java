@@ -0,0 +1,271 @@
+package com.example.controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarInputStream;
+
+/**
+ * Recherche les classes portant une annotation donnée sous un package.
+ *
+ * Les fichiers .class sont lus en octets et l'annotation est cherchée dans le
+ * constant pool avant tout chargement : les classes non concernées ne sont
+ * jamais chargées ni initialisées. Supporte les répertoires (parcourus en
+ * parallèle), les jar: et les jars imbriqués (WAR, jar exécutable).
+ */
+public class ClassPathScanner {
+
+    private static final int CONSTANT_UTF8 = 1;
+
+    private final ClassLoader loader;
+    private final byte[] descriptor;
+
+    public ClassPathScanner(ClassLoader loader, Class<?> annotation) {
+        this.loader = loader;
+        this.descriptor = ("L" + annotation.getName().replace('.', '/') + ";")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Noms des classes candidates (annotation présente dans le constant pool),
+     * triés pour un ordre stable.
+     */
+    public List<String> scan(String basePackage) throws IOException {
+        String chemin = basePackage.replace('.', '/');
+        Queue<String> found = new ConcurrentLinkedQueue<>();
+
+        Enumeration<URL> resources = loader.getResources(chemin);
+        while (resources.hasMoreElements()) {
+            URL url = resources.nextElement();
+            String protocol = url.getProtocol();
+
+            if ("file".equals(protocol)) {
+                File root = new File(URLDecoder.decode(url.getFile(), StandardCharsets.UTF_8));
+                ForkJoinPool.commonPool().invoke(new DirectoryTask(root, basePackage, found));
+            } else if ("jar".equals(protocol)) {
+                scanJar(url.toString(), chemin, found);
+            }
+        }
+
+        return new ArrayList<>(new TreeSet<>(found));
+    }
+
+    /**
+     * Charge (sans initialiser) les classes candidates et garde celles qui
+     * portent réellement l'annotation.
+     */
+    public List<Class<?>> load(List<String> names, Class<? extends Annotation> annotation) {
+        List<Class<?>> classes = new ArrayList<>();
+        for (String name : names) {
+            try {
+                Class<?> c = Class.forName(name, false, loader);
+                if (c.isAnnotationPresent(annotation)) {
+                    classes.add(c);
+                }
+            } catch (ClassNotFoundException | LinkageError ignored) {
+            }
+        }
+        return classes;
+    }
+
+    // ==================== RÉPERTOIRES ====================
+
+    private class DirectoryTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final File dir;
+        private final String pkg;
+        private final Queue<String> found;
+
+        DirectoryTask(File dir, String pkg, Queue<String> found) {
+            this.dir = dir;
+            this.pkg = pkg;
+            this.found = found;
+        }
+
+        @Override
+        protected void compute() {
+            File[] files = dir.listFiles();
+            if (files == null) {
+                return;
+            }
+
+            List<DirectoryTask> subTasks = new ArrayList<>();
+            for (File f : files) {
+                String name = f.getName();
+                if (f.isDirectory()) {
+                    subTasks.add(new DirectoryTask(f, pkg + "." + name, found));
+                } else if (name.endsWith(".class") && !name.equals("module-info.class")) {
+                    try {
+                        if (hasAnnotation(Files.readAllBytes(f.toPath()))) {
+                            found.add(pkg + "." + name.substring(0, name.length() - 6));
+                        }
+                    } catch (IOException ignored) {
+                    }
+                }
+            }
+            invokeAll(subTasks);
+        }
+    }
+
+    // ==================== JARS ====================
+
+    /**
+     * url de la forme jar:file:/app.war!/WEB-INF/lib/lib.jar!/com/pkg ou
+     * jar:file:/app.jar!/BOOT-INF/classes!/com/pkg : les segments se terminant
+     * par .jar sont des jars imbriqués, les autres des racines de classes.
+     */
+    private void scanJar(String url, String chemin, Queue<String> found) throws IOException {
+        String[] parts = url.substring("jar:".length()).split("!/");
+        File file;
+        try {
+            file = new File(new URL(parts[0]).toURI());
+        } catch (Exception e) {
+            throw new IOException("URL de jar non supportée : " + url, e);
+        }
+
+        try (JarFile jar = new JarFile(file)) {
+            StringBuilder root = new StringBuilder();
+            int i = 1;
+            // Racine de classes dans le jar principal (ex: WEB-INF/classes)
+            while (i < parts.length - 1 && !parts[i].endsWith(".jar")) {
+                root.append(parts[i]).append('/');
+                i++;
+            }
+
+            if (i < parts.length - 1) {
+                JarEntry nested = jar.getJarEntry(parts[i]);
+                if (nested != null) {
+                    try (JarInputStream in = new JarInputStream(jar.getInputStream(nested))) {
+                        scanNested(in, parts, i + 1, chemin, found);
+                    }
+                }
+                return;
+            }
+
+            String rootPrefix = root.toString();
+            String prefix = rootPrefix + chemin + "/";
+            Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (isClassEntry(name, prefix)) {
+                    try (InputStream in = jar.getInputStream(entry)) {
+                        if (hasAnnotation(in.readAllBytes())) {
+                            found.add(toClassName(name, rootPrefix.length()));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void scanNested(JarInputStream jar, String[] parts, int index, String chemin, Queue<String> found)
+            throws IOException {
+        StringBuilder root = new StringBuilder();
+        int i = index;
+        while (i < parts.length - 1 && !parts[i].endsWith(".jar")) {
+            root.append(parts[i]).append('/');
+            i++;
+        }
+        String rootPrefix = root.toString();
+        String prefix = rootPrefix + chemin + "/";
+        String nestedJar = i < parts.length - 1 ? parts[i] : null;
+
+        JarEntry entry;
+        while ((entry = jar.getNextJarEntry()) != null) {
+            String name = entry.getName();
+            if (nestedJar != null) {
+                if (name.equals(nestedJar)) {
+                    scanNested(new JarInputStream(jar), parts, i + 1, chemin, found);
+                    return;
+                }
+            } else if (isClassEntry(name, prefix) && hasAnnotation(jar.readAllBytes())) {
+                found.add(toClassName(name, rootPrefix.length()));
+            }
+        }
+    }
+
+    private static boolean isClassEntry(String name, String prefix) {
+        return name.startsWith(prefix) && name.endsWith(".class") && !name.endsWith("module-info.class");
+    }
+
+    private static String toClassName(String entryName, int rootLength) {
+        return entryName.substring(rootLength, entryName.length() - 6).replace('/', '.');
+    }
+
+    // ==================== CONSTANT POOL ====================
+
+    /**
+     * Cherche le descripteur de l'annotation parmi les CONSTANT_Utf8 du
+     * constant pool, sans charger la classe.
+     */
+    boolean hasAnnotation(byte[] b) {
+        try {
+            if (b.length < 10 || (b[0] & 0xFF) != 0xCA || (b[1] & 0xFF) != 0xFE
+                    || (b[2] & 0xFF) != 0xBA || (b[3] & 0xFF) != 0xBE) {
+                return false;
+            }
+            int count = u2(b, 8);
+            int pos = 10;
+            for (int i = 1; i < count; i++) {
+                int tag = b[pos] & 0xFF;
+                switch (tag) {
+                    case CONSTANT_UTF8:
+                        int len = u2(b, pos + 1);
+                        if (len == descriptor.length && Arrays.equals(b, pos + 3, pos + 3 + len, descriptor, 0, len)) {
+                            return true;
+                        }
+                        pos += 3 + len;
+                        break;
+                    case 3: // Integer
+                    case 4: // Float
+                    case 9: // Fieldref
+                    case 10: // Methodref
+                    case 11: // InterfaceMethodref
+                    case 12: // NameAndType
+                    case 17: // Dynamic
+                    case 18: // InvokeDynamic
+                        pos += 5;
+                        break;
+                    case 5: // Long
+                    case 6: // Double
+                        pos += 9;
+                        i++;
+                        break;
+                    case 7: // Class
+                    case 8: // String
+                    case 16: // MethodType
+                    case 19: // Module
+                    case 20: // Package
+                        pos += 3;
+                        break;
+                    case 15: // MethodHandle
+                        pos += 4;
+                        break;
+                    default:
+                        // Format inconnu : laisser le ClassLoader trancher
+                        return true;
+                }
+            }
+            return false;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            return false;
+        }
+    }
+
+    private static int u2(byte[] b, int pos) {
+        return ((b[pos] & 0xFF) << 8) | (b[pos + 1] & 0xFF);
+    }
+}
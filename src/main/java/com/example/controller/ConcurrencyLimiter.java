@@ -0,0 +1,172 @@
+package com.example.controller;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.example.annotation.Limit;
+
+/**
+ * Limite de concurrence d'une route : compteur de permis sans verrou (CAS) et
+ * file d'attente bornée. Les threads en attente sont garés et réveillés un
+ * par un à chaque libération.
+ *
+ * En mode adaptatif la limite suit un AIMD sur la latence observée :
+ * augmentation additive tant que la route répond sous la cible, diminution
+ * multiplicative dès qu'elle la dépasse ou échoue, au plus une fois par
+ * fenêtre : seules les requêtes admises après la dernière diminution peuvent
+ * en déclencher une autre.
+ */
+public class ConcurrencyLimiter {
+
+    private static final double BACKOFF = 0.9;
+
+    private final int maxLimit;
+    private final int maxQueue;
+    private final long queueTimeoutNanos;
+    private final int retryAfter;
+    private final boolean adaptive;
+    private final long latencyTargetNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Queue<Thread> waiters = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger limit;
+    // Succès consécutifs sous la cible depuis la dernière augmentation
+    private final AtomicInteger successes = new AtomicInteger();
+    // Instant (nanoTime) de la dernière diminution : début de la fenêtre courante
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+
+    public ConcurrencyLimiter(int maxConcurrent, int queue, long queueTimeoutMillis,
+            int retryAfter, boolean adaptive, long latencyTargetMillis) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent doit être >= 1");
+        }
+        this.maxLimit = maxConcurrent;
+        this.maxQueue = Math.max(0, queue);
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, queueTimeoutMillis));
+        this.retryAfter = retryAfter;
+        this.adaptive = adaptive;
+        this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(latencyTargetMillis);
+        this.limit = new AtomicInteger(maxConcurrent);
+    }
+
+    public static ConcurrencyLimiter of(Limit limit) {
+        if (limit == null) {
+            return null;
+        }
+        return new ConcurrencyLimiter(limit.maxConcurrent(), limit.queue(), limit.queueTimeout(),
+                limit.retryAfter(), limit.adaptive(), limit.latencyTarget());
+    }
+
+    /**
+     * Obtient un permis, en attendant dans la file si elle n'est pas pleine.
+     * Retourne false si la requête doit être refusée.
+     */
+    public boolean acquire() {
+        if (tryAcquire()) {
+            return true;
+        }
+        if (maxQueue == 0 || queueTimeoutNanos == 0) {
+            return false;
+        }
+        if (waiting.incrementAndGet() > maxQueue) {
+            waiting.decrementAndGet();
+            return false;
+        }
+
+        Thread current = Thread.currentThread();
+        waiters.add(current);
+        long deadline = System.nanoTime() + queueTimeoutNanos;
+        try {
+            while (true) {
+                // Revérifier après l'ajout : aucune libération ne peut être manquée
+                if (tryAcquire()) {
+                    return true;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || current.isInterrupted()) {
+                    return false;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+        } finally {
+            waiters.remove(current);
+            waiting.decrementAndGet();
+            // Transmettre un éventuel réveil reçu sans l'avoir utilisé
+            signalNext();
+        }
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Rend le permis. La durée et l'issue du traitement alimentent la limite
+     * adaptative.
+     */
+    public void release(long elapsedNanos, boolean success) {
+        inFlight.decrementAndGet();
+        if (adaptive) {
+            adjust(elapsedNanos, success);
+        }
+        signalNext();
+    }
+
+    private void adjust(long elapsedNanos, boolean success) {
+        int current = limit.get();
+        if (success && elapsedNanos <= latencyTargetNanos) {
+            // +1 après "limit" succès : environ +1 par fenêtre de requêtes
+            if (current < maxLimit && successes.incrementAndGet() >= current) {
+                successes.set(0);
+                limit.compareAndSet(current, current + 1);
+            }
+            return;
+        }
+
+        // Requête commencée avant la dernière diminution : déjà prise en compte
+        long now = System.nanoTime();
+        long window = windowStart.get();
+        if (now - elapsedNanos - window < 0 || !windowStart.compareAndSet(window, now)) {
+            return;
+        }
+        successes.set(0);
+        limit.updateAndGet(l -> Math.max(1, (int) (l * BACKOFF)));
+    }
+
+    private void signalNext() {
+        Thread next = waiters.peek();
+        if (next != null) {
+            LockSupport.unpark(next);
+        }
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    public int getRetryAfter() {
+        return retryAfter;
+    }
+}
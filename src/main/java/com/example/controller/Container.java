@@ -0,0 +1,398 @@
+package com.example.controller;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.function.Supplier;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import com.example.annotation.Inject;
+import com.example.annotation.Scope;
+
+/**
+ * Conteneur d'injection par constructeur des contrôleurs et de leurs
+ * dépendances.
+ *
+ * Chaque type est résolu une seule fois en fabrique (constructeur compilé en
+ * MethodHandle + fournisseurs des dépendances) : créer une instance ne fait
+ * plus de réflexion. Les classes concrètes sont liées implicitement avec la
+ * portée de leur {@link Scope} ; interfaces et ressources externes (pool de
+ * connexions...) se déclarent par {@link #bind}. Un paramètre
+ * {@code Supplier<T>} reçoit un fournisseur (accès à une portée plus courte,
+ * rupture de cycle).
+ *
+ * {@link #start} crée en parallèle tous les singletons non paresseux ;
+ * {@link #close} ferme les singletons AutoCloseable dans l'ordre inverse de
+ * leur création.
+ */
+public class Container implements AutoCloseable {
+
+    /**
+     * Configuration déclarée par l'init-param container-modules de UrlServlet.
+     */
+    public interface Module {
+        void configure(Container container) throws Exception;
+    }
+
+    private static final Object[] NO_ARGS = new Object[0];
+    private static final ThreadLocal<HttpServletRequest> CURRENT_REQUEST = new ThreadLocal<>();
+
+    private final Map<Class<?>, Binding<?>> bindings = new HashMap<>();
+    private final Set<Class<?>> resolving = new LinkedHashSet<>();
+    private final List<Object> created = Collections.synchronizedList(new ArrayList<>());
+    private volatile boolean requestScope = false;
+
+    public Container() {
+        bindInstance(Container.class, this);
+    }
+
+    // ==================== DÉCLARATION ====================
+
+    /**
+     * Instance existante, partagée.
+     */
+    public synchronized <T> void bindInstance(Class<T> type, T instance) {
+        Binding<T> binding = new Binding<>(type, Scope.Type.SINGLETON, false);
+        binding.provider = () -> instance;
+        bindings.put(type, binding);
+    }
+
+    /**
+     * Fabrique fournie par l'application, dans la portée donnée.
+     */
+    public synchronized <T> void bind(Class<T> type, Supplier<? extends T> factory, Scope.Type scope) {
+        Binding<T> binding = new Binding<>(type, scope, false);
+        binding.provider = scoped(binding, factory::get);
+        bindings.put(type, binding);
+    }
+
+    /**
+     * Implémentation d'une interface ou d'une classe abstraite (portée de
+     * l'implémentation).
+     */
+    public synchronized <T> void bind(Class<T> type, Class<? extends T> implementation) {
+        Binding<? extends T> target = resolve(implementation);
+        Binding<T> binding = new Binding<>(type, target.scope, target.lazy);
+        binding.provider = target.provider::get;
+        bindings.put(type, binding);
+    }
+
+    // ==================== RÉSOLUTION ====================
+
+    public <T> T get(Class<T> type) {
+        return provider(type).get();
+    }
+
+    /**
+     * Fournisseur résolu du type, à conserver pour éviter toute recherche.
+     */
+    public synchronized <T> Supplier<T> provider(Class<T> type) {
+        return resolve(type).provider;
+    }
+
+    /**
+     * Portée du type (liaison explicite ou @Scope).
+     */
+    public synchronized Scope.Type scopeOf(Class<?> type) {
+        return resolve(type).scope;
+    }
+
+    /**
+     * Vrai si le type est un singleton créé au démarrage.
+     */
+    public synchronized boolean isEager(Class<?> type) {
+        Binding<?> binding = resolve(type);
+        return binding.scope == Scope.Type.SINGLETON && !binding.lazy;
+    }
+
+    /**
+     * Résout les types donnés puis crée en parallèle tous les singletons non
+     * paresseux (une dépendance partagée n'est créée qu'une fois).
+     */
+    public void start(Collection<Class<?>> types) {
+        List<Binding<?>> eager = new ArrayList<>();
+        synchronized (this) {
+            for (Class<?> type : types) {
+                resolve(type);
+            }
+            for (Binding<?> binding : bindings.values()) {
+                if (binding.scope == Scope.Type.SINGLETON && !binding.lazy) {
+                    eager.add(binding);
+                }
+            }
+        }
+        eager.parallelStream().forEach(binding -> binding.provider.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Binding<T> resolve(Class<T> type) {
+        Binding<T> binding = (Binding<T>) bindings.get(type);
+        if (binding != null) {
+            return binding;
+        }
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers()) || type.isPrimitive()) {
+            throw new IllegalStateException("Aucune liaison pour " + type.getName()
+                    + (resolving.isEmpty() ? "" : " (" + path(type) + ")"));
+        }
+        if (!resolving.add(type)) {
+            throw new IllegalStateException("Cycle de dépendances : " + path(type)
+                    + " (injecter un Supplier pour le rompre)");
+        }
+        try {
+            Scope scope = type.getAnnotation(Scope.class);
+            binding = new Binding<>(type, scope != null ? scope.value() : Scope.Type.SINGLETON,
+                    scope != null && scope.lazy());
+            binding.provider = scoped(binding, compileFactory(binding));
+            bindings.put(type, binding);
+            return binding;
+        } finally {
+            resolving.remove(type);
+        }
+    }
+
+    // Chaîne de résolution en cours jusqu'à type : A -> B -> type
+    private String path(Class<?> type) {
+        StringJoiner joiner = new StringJoiner(" -> ");
+        for (Class<?> c : resolving) {
+            joiner.add(c.getSimpleName());
+        }
+        return joiner.add(type.getSimpleName()).toString();
+    }
+
+    /**
+     * Constructeur compilé et fournisseurs des paramètres, résolus une fois.
+     */
+    private <T> Factory<T> compileFactory(Binding<T> binding) {
+        Class<T> type = binding.type;
+        Constructor<?> constructor = selectConstructor(type);
+        Type[] parameters = constructor.getGenericParameterTypes();
+        Supplier<?>[] dependencies = new Supplier<?>[parameters.length];
+
+        for (int i = 0; i < parameters.length; i++) {
+            Type parameter = parameters[i];
+            if (parameter instanceof ParameterizedType
+                    && ((ParameterizedType) parameter).getRawType() == Supplier.class) {
+                Supplier<?> lazy = lazyProvider(((ParameterizedType) parameter).getActualTypeArguments()[0]);
+                dependencies[i] = () -> lazy;
+                continue;
+            }
+            Class<?> raw = constructor.getParameterTypes()[i];
+            Binding<?> dependency = resolve(raw);
+            if (binding.scope == Scope.Type.SINGLETON && dependency.scope == Scope.Type.REQUEST) {
+                throw new IllegalStateException(type.getSimpleName() + " (singleton) dépend de "
+                        + raw.getSimpleName() + " (portée requête) : injecter Supplier<"
+                        + raw.getSimpleName() + ">");
+            }
+            dependencies[i] = dependency.provider;
+        }
+
+        MethodHandle handle;
+        try {
+            constructor.setAccessible(true);
+            handle = MethodHandles.lookup().unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, parameters.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new IllegalStateException("Constructeur inaccessible : " + type.getName(), e);
+        }
+
+        return () -> {
+            Object[] args = dependencies.length == 0 ? NO_ARGS : new Object[dependencies.length];
+            for (int i = 0; i < dependencies.length; i++) {
+                args[i] = dependencies[i].get();
+            }
+            try {
+                return type.cast(handle.invokeExact(args));
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException("Création de " + type.getName() + " impossible", t);
+            }
+        };
+    }
+
+    private static Constructor<?> selectConstructor(Class<?> type) {
+        Constructor<?>[] constructors = type.getDeclaredConstructors();
+        Constructor<?> selected = null;
+        for (Constructor<?> constructor : constructors) {
+            if (constructor.isAnnotationPresent(Inject.class)) {
+                if (selected != null) {
+                    throw new IllegalStateException("Plusieurs constructeurs @Inject : " + type.getName());
+                }
+                selected = constructor;
+            }
+        }
+        if (selected != null) {
+            return selected;
+        }
+        if (constructors.length == 1) {
+            return constructors[0];
+        }
+        for (Constructor<?> constructor : constructors) {
+            if (constructor.getParameterCount() == 0) {
+                return constructor;
+            }
+        }
+        throw new IllegalStateException("Constructeur ambigu (ajouter @Inject) : " + type.getName());
+    }
+
+    // Supplier<T> injecté : résolu au premier appel
+    private Supplier<?> lazyProvider(Type target) {
+        Class<?> raw = target instanceof ParameterizedType
+                ? (Class<?>) ((ParameterizedType) target).getRawType()
+                : (Class<?>) target;
+        return new Supplier<Object>() {
+            private volatile Supplier<?> provider;
+
+            @Override
+            public Object get() {
+                Supplier<?> p = provider;
+                if (p == null) {
+                    p = provider(raw);
+                    provider = p;
+                }
+                return p.get();
+            }
+        };
+    }
+
+    // ==================== PORTÉES ====================
+
+    private <T> Supplier<T> scoped(Binding<T> binding, Factory<T> factory) {
+        switch (binding.scope) {
+            case PROTOTYPE:
+                return factory::create;
+            case REQUEST:
+                requestScope = true;
+                String key = Container.class.getName() + "#" + binding.type.getName();
+                return () -> {
+                    HttpServletRequest req = CURRENT_REQUEST.get();
+                    if (req == null) {
+                        throw new IllegalStateException(binding.type.getName() + " utilisé hors d'une requête");
+                    }
+                    Object value = req.getAttribute(key);
+                    if (value == null) {
+                        value = factory.create();
+                        req.setAttribute(key, value);
+                    }
+                    return binding.type.cast(value);
+                };
+            default:
+                return new Singleton<>(factory, created);
+        }
+    }
+
+    /**
+     * Vrai si au moins un type a la portée requête : UrlServlet n'associe la
+     * requête au thread que dans ce cas.
+     */
+    public boolean hasRequestScope() {
+        return requestScope;
+    }
+
+    /**
+     * Associe la requête au thread courant ; retourne la précédente, à
+     * rendre à {@link #exitRequest}.
+     */
+    public HttpServletRequest enterRequest(HttpServletRequest req) {
+        HttpServletRequest previous = CURRENT_REQUEST.get();
+        CURRENT_REQUEST.set(req);
+        return previous;
+    }
+
+    public void exitRequest(HttpServletRequest previous) {
+        if (previous == null) {
+            CURRENT_REQUEST.remove();
+        } else {
+            CURRENT_REQUEST.set(previous);
+        }
+    }
+
+    /**
+     * Ferme tous les singletons, même si certains échouent ; les échecs sont
+     * réunis dans une IllegalStateException (exceptions supprimées).
+     */
+    @Override
+    public void close() {
+        List<Object> instances;
+        synchronized (created) {
+            instances = new ArrayList<>(created);
+            created.clear();
+        }
+        Collections.reverse(instances);
+        IllegalStateException failure = null;
+        for (Object instance : instances) {
+            if (instance instanceof AutoCloseable && instance != this) {
+                try {
+                    ((AutoCloseable) instance).close();
+                } catch (Exception e) {
+                    if (failure == null) {
+                        failure = new IllegalStateException("Fermeture du conteneur incomplète");
+                    }
+                    failure.addSuppressed(new IllegalStateException(
+                            "Fermeture de " + instance.getClass().getName(), e));
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // ==================== INTERNE ====================
+
+    private interface Factory<T> {
+        T create();
+    }
+
+    private static class Binding<T> {
+        final Class<T> type;
+        final Scope.Type scope;
+        final boolean lazy;
+        Supplier<T> provider;
+
+        Binding(Class<T> type, Scope.Type scope, boolean lazy) {
+            this.type = type;
+            this.scope = scope;
+            this.lazy = lazy;
+        }
+    }
+
+    /**
+     * Instance unique créée au premier appel ; les dépendances étant créées
+     * avant leur dépendant, l'ordre de {@code created} est un ordre de
+     * construction valide.
+     */
+    private static class Singleton<T> implements Supplier<T> {
+        private final Factory<T> factory;
+        private final List<Object> created;
+        private volatile T instance;
+
+        Singleton(Factory<T> factory, List<Object> created) {
+            this.factory = factory;
+            this.created = created;
+        }
+
+        @Override
+        public T get() {
+            T value = instance;
+            if (value == null) {
+                synchronized (this) {
+                    value = instance;
+                    if (value == null) {
+                        value = factory.create();
+                        created.add(value);
+                        instance = value;
+                    }
+                }
+            }
+            return value;
+        }
+    }
+}
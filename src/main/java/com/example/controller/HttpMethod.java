@@ -0,0 +1,39 @@
+package com.example.controller;
+
+import java.util.Locale;
+
+/**
+ * Méthodes HTTP routables. L'ordinal indexe la table de dispatch de chaque
+ * nœud de {@link RouteTree}.
+ */
+public enum HttpMethod {
+    GET, HEAD, POST, PUT, DELETE, PATCH, OPTIONS;
+
+    static final int COUNT = values().length;
+
+    /**
+     * Méthode correspondant au nom (sans allocation pour les noms en
+     * majuscules), ou null si elle n'est pas routable (TRACE, CONNECT...).
+     */
+    public static HttpMethod of(String name) {
+        switch (name) {
+            case "GET":
+                return GET;
+            case "HEAD":
+                return HEAD;
+            case "POST":
+                return POST;
+            case "PUT":
+                return PUT;
+            case "DELETE":
+                return DELETE;
+            case "PATCH":
+                return PATCH;
+            case "OPTIONS":
+                return OPTIONS;
+            default:
+                String upper = name.toUpperCase(Locale.ROOT);
+                return upper.equals(name) ? null : of(upper);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import com.example.controller.ScannerController.RouteData;
+
+/**
+ * Traitement autour de l'exécution d'une route (authentification, journal,
+ * mesures...). Les intercepteurs d'une route sont choisis au démarrage
+ * ({@link #appliesTo}) : une route sans intercepteur n'en paie rien.
+ *
+ * Ordre : before de chaque intercepteur, liaison des arguments, around
+ * (imbriqués), méthode du contrôleur, puis after en ordre inverse pour les
+ * intercepteurs dont before a été appelé.
+ */
+public interface Interceptor {
+
+    /**
+     * Vrai si l'intercepteur s'applique à la route (appelé une fois au démarrage).
+     */
+    default boolean appliesTo(RouteData route) {
+        return true;
+    }
+
+    /**
+     * Avant la liaison des arguments. Retourner false interrompt la requête :
+     * la réponse (401, redirection...) doit alors avoir été écrite.
+     */
+    default boolean before(RouteData route, HttpServletRequest req, HttpServletResponse resp) throws Exception {
+        return true;
+    }
+
+    /**
+     * Autour de l'appel : {@code invocation.proceed()} continue la chaîne, une
+     * autre valeur retournée remplace le résultat de la route sans l'exécuter.
+     */
+    default Object around(InterceptorChain.Invocation invocation) throws Exception {
+        return invocation.proceed();
+    }
+
+    /**
+     * Après l'appel, même en cas d'erreur (error non null). Pour une route
+     * asynchrone, result est le CompletionStage non encore terminé.
+     */
+    default void after(RouteData route, HttpServletRequest req, HttpServletResponse resp,
+            Object result, Throwable error) throws Exception {
+    }
+}
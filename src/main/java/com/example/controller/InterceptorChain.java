@@ -0,0 +1,203 @@
+package com.example.controller;
+
+import java.util.*;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import com.example.annotation.Intercept;
+import com.example.annotation.Scope;
+import com.example.controller.ScannerController.RouteData;
+
+/**
+ * Intercepteurs d'une route, résolus une fois au démarrage par
+ * {@link #resolve}. Les routes sans intercepteur gardent
+ * {@code RouteData.interceptors == null} et sont appelées directement.
+ */
+public class InterceptorChain {
+
+    /**
+     * Résultat d'une requête interrompue par before : la réponse est déjà écrite.
+     */
+    public static final Object HANDLED = new Object();
+
+    /**
+     * Étape finale de la chaîne : liaison des arguments et appel de la route.
+     */
+    public interface Target {
+        Object run(Invocation invocation) throws Exception;
+    }
+
+    private final Interceptor[] interceptors;
+
+    private InterceptorChain(Interceptor[] interceptors) {
+        this.interceptors = interceptors;
+    }
+
+    public Interceptor[] getInterceptors() {
+        return interceptors.clone();
+    }
+
+    /**
+     * Calcule la chaîne de chaque route : intercepteurs globaux acceptés par
+     * appliesTo, puis ceux de @Intercept sur la classe et sur la méthode.
+     */
+    public static void resolve(Map<String, List<RouteData>> routes, List<Interceptor> globals) {
+        resolve(routes, globals, new Container());
+    }
+
+    /**
+     * Comme {@link #resolve(Map, List)}, les intercepteurs de @Intercept étant
+     * fournis par le conteneur (avec leurs dépendances).
+     */
+    public static void resolve(Map<String, List<RouteData>> routes, List<Interceptor> globals, Container container) {
+        Map<Class<?>, Interceptor> instances = new HashMap<>();
+        for (Interceptor global : globals) {
+            instances.put(global.getClass(), global);
+        }
+        for (List<RouteData> list : routes.values()) {
+            for (RouteData route : list) {
+                List<Interceptor> chain = new ArrayList<>();
+                for (Interceptor global : globals) {
+                    if (global.appliesTo(route)) {
+                        chain.add(global);
+                    }
+                }
+                addDeclared(chain, instances, container,
+                        route.method.getDeclaringClass().getAnnotation(Intercept.class), route);
+                addDeclared(chain, instances, container, route.method.getAnnotation(Intercept.class), route);
+                route.interceptors = chain.isEmpty() ? null : new InterceptorChain(chain.toArray(new Interceptor[0]));
+            }
+        }
+    }
+
+    private static void addDeclared(List<Interceptor> chain, Map<Class<?>, Interceptor> instances,
+            Container container, Intercept intercept, RouteData route) {
+        if (intercept == null) {
+            return;
+        }
+        for (Class<? extends Interceptor> type : intercept.value()) {
+            Interceptor interceptor = instances.computeIfAbsent(type, t -> create(container, t));
+            if (!chain.contains(interceptor) && interceptor.appliesTo(route)) {
+                chain.add(interceptor);
+            }
+        }
+    }
+
+    /**
+     * Intercepteur fourni par le conteneur. Une instance est partagée par
+     * toutes les requêtes de ses routes : seule la portée singleton est
+     * acceptée (une dépendance de portée requête s'injecte par Supplier).
+     */
+    public static Interceptor create(Container container, Class<?> type) {
+        if (!Interceptor.class.isAssignableFrom(type)) {
+            throw new IllegalStateException(type.getName() + " n'implémente pas Interceptor");
+        }
+        Scope.Type scope = container.scopeOf(type);
+        if (scope != Scope.Type.SINGLETON) {
+            throw new IllegalStateException("Intercepteur " + type.getName() + " de portée " + scope
+                    + " : un intercepteur est partagé, seule la portée SINGLETON est possible"
+                    + " (injecter un Supplier pour les objets de portée plus courte)");
+        }
+        return (Interceptor) container.get(type);
+    }
+
+    /**
+     * Exécute la chaîne autour de target. Retourne {@link #HANDLED} si un
+     * before a interrompu la requête.
+     */
+    public Object execute(RouteData route, HttpServletRequest req, HttpServletResponse resp, Target target)
+            throws Exception {
+        int entered = 0;
+        Object result = null;
+        Throwable error = null;
+        try {
+            while (entered < interceptors.length) {
+                if (!interceptors[entered++].before(route, req, resp)) {
+                    result = HANDLED;
+                    return HANDLED;
+                }
+            }
+            result = target.run(new Invocation(this, route, req, resp));
+            return result;
+        } catch (Exception | Error e) {
+            error = e;
+            throw e;
+        } finally {
+            Exception afterError = null;
+            for (int i = entered - 1; i >= 0; i--) {
+                try {
+                    interceptors[i].after(route, req, resp, result, error);
+                } catch (Exception e) {
+                    if (error != null) {
+                        error.addSuppressed(e);
+                    } else if (afterError == null) {
+                        afterError = e;
+                    }
+                }
+            }
+            if (afterError != null) {
+                throw afterError;
+            }
+        }
+    }
+
+    /**
+     * Appel en cours, transmis aux hooks around.
+     */
+    public static class Invocation {
+        private final InterceptorChain chain;
+        private final RouteData route;
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private Object[] args;
+        private int index;
+
+        Invocation(InterceptorChain chain, RouteData route, HttpServletRequest request,
+                HttpServletResponse response) {
+            this.chain = chain;
+            this.route = route;
+            this.request = request;
+            this.response = response;
+        }
+
+        /**
+         * Appelé par la cible une fois les arguments liés : lance les around.
+         */
+        public Object start(Object[] args) throws Exception {
+            this.args = args;
+            this.index = 0;
+            return proceed();
+        }
+
+        /**
+         * Intercepteur suivant, ou la méthode du contrôleur.
+         */
+        public Object proceed() throws Exception {
+            Interceptor[] interceptors = chain.interceptors;
+            if (index < interceptors.length) {
+                return interceptors[index++].around(this);
+            }
+            return route.invoke(args);
+        }
+
+        public RouteData getRoute() {
+            return route;
+        }
+
+        public HttpServletRequest getRequest() {
+            return request;
+        }
+
+        public HttpServletResponse getResponse() {
+            return response;
+        }
+
+        /**
+         * Arguments liés, modifiables avant proceed().
+         */
+        public Object[] getArgs() {
+            return args;
+        }
+    }
+}
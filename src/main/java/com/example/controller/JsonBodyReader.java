@@ -0,0 +1,405 @@
+package com.example.controller;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.math.BigInteger;
+import java.util.*;
+
+import com.example.annotation.Json;
+import com.example.classe.ConversionException;
+import com.example.classe.Converters;
+import com.example.classe.JsonReader;
+import com.example.classe.TypeConverter;
+
+/**
+ * Lie un corps JSON directement sur le type d'un paramètre, au fil de la
+ * lecture : ni le corps ni un arbre intermédiaire ne sont construits. Les
+ * setters (ou champs) et constructeurs de records sont compilés une fois par
+ * classe. Les noms suivent {@code @Json("nom")} comme à l'écriture ; les
+ * propriétés inconnues sont ignorées.
+ *
+ * Une valeur de type incorrect lève une ConversionException dont le
+ * paramètre est le chemin JSON ({@code items[2].qty}).
+ */
+public class JsonBodyReader {
+
+    private JsonBodyReader() {
+    }
+
+    /**
+     * Valeur du document, ou null si le corps est vide.
+     */
+    public static Object read(Reader in, Type type) throws IOException {
+        JsonReader reader = new JsonReader(in);
+        if (reader.peek() == -1) {
+            return null;
+        }
+        Object value = readValue(reader, type, 0);
+        reader.endDocument();
+        return value;
+    }
+
+    static Object readValue(JsonReader r, Type type, int depth) throws IOException {
+        if (depth > JsonReader.MAX_DEPTH) {
+            throw r.error("Document trop profond");
+        }
+        Class<?> raw = rawType(type);
+        int c = r.peek();
+        if (c == 'n') {
+            r.nextNull();
+            return ArgumentBinder.defaultValue(raw);
+        }
+        if (c == -1) {
+            throw r.error("Fin du corps inattendue");
+        }
+
+        if (raw == Object.class) {
+            return readAny(r, depth);
+        }
+        if (Map.class.isAssignableFrom(raw)) {
+            return readMap(r, raw, typeArgument(type, 0), typeArgument(type, 1), depth);
+        }
+        if (Collection.class.isAssignableFrom(raw)) {
+            return readCollection(r, raw, typeArgument(type, 0), depth);
+        }
+        if (raw.isArray()) {
+            Type component = type instanceof GenericArrayType
+                    ? ((GenericArrayType) type).getGenericComponentType()
+                    : raw.getComponentType();
+            return readArray(r, raw.getComponentType(), component, depth);
+        }
+        if (c == '{' && !Converters.supports(raw)) {
+            return raw.isRecord() ? readRecord(r, RecordModel.of(raw), depth) : readBean(r, BeanModel.of(raw), depth);
+        }
+        return readScalar(r, raw, c);
+    }
+
+    // ==================== VALEURS SIMPLES ====================
+
+    private static Object readScalar(JsonReader r, Class<?> raw, int c) throws IOException {
+        String text;
+        if (c == '"') {
+            text = r.nextString();
+        } else if (c == 't' || c == 'f') {
+            text = r.nextBoolean() ? "true" : "false";
+        } else if (c == '{' || c == '[') {
+            r.skipValue();
+            throw new ConversionException(null, c == '{' ? "{...}" : "[...]", raw, null);
+        } else {
+            text = r.nextNumber();
+        }
+        TypeConverter<?> converter = Converters.forType(raw);
+        if (converter == null) {
+            throw new IllegalStateException("Aucune conversion vers " + raw.getName());
+        }
+        Object value = Converters.convert(converter, text, raw);
+        return value != null ? value : ArgumentBinder.defaultValue(raw);
+    }
+
+    // Sans type cible : Map, List, String, Long/BigInteger/Double, Boolean
+    private static Object readAny(JsonReader r, int depth) throws IOException {
+        int c = r.peek();
+        switch (c) {
+            case '{':
+                return readMap(r, Map.class, String.class, Object.class, depth);
+            case '[':
+                return readCollection(r, List.class, Object.class, depth);
+            case '"':
+                return r.nextString();
+            case 't':
+            case 'f':
+                return r.nextBoolean();
+            case 'n':
+                r.nextNull();
+                return null;
+            default:
+                String number = r.nextNumber();
+                if (number.indexOf('.') < 0 && number.indexOf('e') < 0 && number.indexOf('E') < 0) {
+                    return number.length() < 19 ? (Object) Long.parseLong(number) : new BigInteger(number);
+                }
+                return Double.parseDouble(number);
+        }
+    }
+
+    // ==================== CONTENEURS ====================
+
+    private static Object readMap(JsonReader r, Class<?> raw, Type keyType, Type valueType, int depth)
+            throws IOException {
+        Map<Object, Object> map = raw.isAssignableFrom(LinkedHashMap.class) ? new LinkedHashMap<>() : new TreeMap<>();
+        Class<?> keyClass = rawType(keyType);
+        TypeConverter<?> keyConverter = keyClass == String.class || keyClass == Object.class
+                ? null
+                : Converters.forType(keyClass);
+
+        r.beginObject();
+        for (boolean first = true; r.hasNext('}', first); first = false) {
+            String name = r.nextName();
+            try {
+                Object key = keyConverter != null ? Converters.convert(keyConverter, name, keyClass) : name;
+                map.put(key, readValue(r, valueType, depth + 1));
+            } catch (ConversionException e) {
+                throw e.withParameter(path(name, e.getParameter()));
+            }
+        }
+        return map;
+    }
+
+    private static Object readCollection(JsonReader r, Class<?> raw, Type elementType, int depth) throws IOException {
+        Collection<Object> collection;
+        if (raw.isAssignableFrom(ArrayList.class)) {
+            collection = new ArrayList<>();
+        } else if (raw.isAssignableFrom(LinkedHashSet.class)) {
+            collection = new LinkedHashSet<>();
+        } else if (raw.isAssignableFrom(TreeSet.class)) {
+            collection = new TreeSet<>();
+        } else {
+            collection = new ArrayDeque<>();
+        }
+        readElements(r, collection, elementType, depth);
+        return collection;
+    }
+
+    private static Object readArray(JsonReader r, Class<?> component, Type genericComponent, int depth)
+            throws IOException {
+        List<Object> elements = new ArrayList<>();
+        readElements(r, elements, genericComponent, depth);
+        Object array = Array.newInstance(component, elements.size());
+        for (int i = 0; i < elements.size(); i++) {
+            Array.set(array, i, elements.get(i));
+        }
+        return array;
+    }
+
+    private static void readElements(JsonReader r, Collection<Object> out, Type elementType, int depth)
+            throws IOException {
+        r.beginArray();
+        int index = 0;
+        for (boolean first = true; r.hasNext(']', first); first = false) {
+            try {
+                out.add(readValue(r, elementType, depth + 1));
+            } catch (ConversionException e) {
+                throw e.withParameter(path("[" + index + "]", e.getParameter()));
+            }
+            index++;
+        }
+    }
+
+    // ==================== OBJETS ====================
+
+    private static Object readBean(JsonReader r, BeanModel model, int depth) throws IOException {
+        Object instance = model.binder.newInstance();
+        r.beginObject();
+        for (boolean first = true; r.hasNext('}', first); first = false) {
+            String name = r.nextName();
+            Property prop = model.properties.get(name);
+            if (prop == null) {
+                r.skipValue();
+                continue;
+            }
+            try {
+                Object value = readValue(r, prop.type, depth + 1);
+                prop.setter.invokeExact(instance, value);
+            } catch (ConversionException e) {
+                throw e.withParameter(path(name, e.getParameter()));
+            } catch (IOException | RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+        return instance;
+    }
+
+    private static Object readRecord(JsonReader r, RecordModel model, int depth) throws IOException {
+        Object[] args = new Object[model.types.length];
+        boolean[] set = new boolean[args.length];
+        r.beginObject();
+        for (boolean first = true; r.hasNext('}', first); first = false) {
+            String name = r.nextName();
+            Integer index = model.indexes.get(name);
+            if (index == null) {
+                r.skipValue();
+                continue;
+            }
+            try {
+                args[index] = readValue(r, model.types[index], depth + 1);
+                set[index] = true;
+            } catch (ConversionException e) {
+                throw e.withParameter(path(name, e.getParameter()));
+            }
+        }
+        for (int i = 0; i < args.length; i++) {
+            if (!set[i]) {
+                args[i] = ArgumentBinder.defaultValue(rawType(model.types[i]));
+            }
+        }
+        try {
+            return model.constructor.invokeExact(args);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private static String path(String name, String sub) {
+        if (sub == null) {
+            return name;
+        }
+        return sub.startsWith("[") ? name + sub : name + "." + sub;
+    }
+
+    // ==================== TYPES ====================
+
+    static Class<?> rawType(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        if (type instanceof GenericArrayType) {
+            return Array.newInstance(rawType(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+        }
+        if (type instanceof WildcardType) {
+            return rawType(((WildcardType) type).getUpperBounds()[0]);
+        }
+        return Object.class;
+    }
+
+    private static Type typeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType) {
+            Type[] args = ((ParameterizedType) type).getActualTypeArguments();
+            if (index < args.length) {
+                return args[index];
+            }
+        }
+        return index == 0 && Map.class.isAssignableFrom(rawType(type)) ? String.class : Object.class;
+    }
+
+    static class Property {
+        final Type type;
+        final MethodHandle setter; // (Object, Object) -> void
+
+        Property(Type type, MethodHandle setter) {
+            this.type = type;
+            this.setter = setter;
+        }
+    }
+
+    /**
+     * Setters d'une classe : méthode setX publique si elle existe, sinon
+     * accès direct au champ.
+     */
+    static class BeanModel {
+        private static final ClassValue<BeanModel> CACHE = new ClassValue<>() {
+            @Override
+            protected BeanModel computeValue(Class<?> type) {
+                return new BeanModel(type);
+            }
+        };
+
+        final BeanBinder binder;
+        final Map<String, Property> properties = new HashMap<>();
+
+        static BeanModel of(Class<?> type) {
+            return CACHE.get(type);
+        }
+
+        private BeanModel(Class<?> type) {
+            this.binder = BeanBinder.of(type);
+            if (!binder.isInstantiable()) {
+                throw new IllegalStateException("Pas de constructeur sans argument : " + type.getName());
+            }
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodType generic = MethodType.methodType(void.class, Object.class, Object.class);
+
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    int mod = field.getModifiers();
+                    if (Modifier.isStatic(mod) || Modifier.isFinal(mod) || Modifier.isTransient(mod)
+                            || field.isSynthetic() || properties.containsKey(field.getName())) {
+                        continue;
+                    }
+                    try {
+                        Method setter = findSetter(type, field);
+                        MethodHandle handle;
+                        if (setter != null) {
+                            handle = lookup.unreflect(setter);
+                        } else {
+                            field.setAccessible(true);
+                            handle = lookup.unreflectSetter(field);
+                        }
+                        Property prop = new Property(field.getGenericType(), handle.asType(generic));
+                        properties.put(field.getName(), prop);
+                        Json json = field.getAnnotation(Json.class);
+                        if (json != null && !json.value().isEmpty()) {
+                            properties.put(json.value(), prop);
+                        }
+                    } catch (RuntimeException | IllegalAccessException e) {
+                        // Champ inaccessible (module fermé...) : ignoré
+                    }
+                }
+            }
+        }
+
+        private static Method findSetter(Class<?> type, Field field) {
+            String name = field.getName();
+            String setter = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            try {
+                Method m = type.getMethod(setter, field.getType());
+                return Modifier.isPublic(m.getDeclaringClass().getModifiers()) ? m : null;
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Composants et constructeur canonique d'un record.
+     */
+    static class RecordModel {
+        private static final ClassValue<RecordModel> CACHE = new ClassValue<>() {
+            @Override
+            protected RecordModel computeValue(Class<?> type) {
+                return new RecordModel(type);
+            }
+        };
+
+        final Type[] types;
+        final Map<String, Integer> indexes = new HashMap<>();
+        final MethodHandle constructor; // (Object[]) -> Object
+
+        static RecordModel of(Class<?> type) {
+            return CACHE.get(type);
+        }
+
+        private RecordModel(Class<?> type) {
+            RecordComponent[] components = type.getRecordComponents();
+            this.types = new Type[components.length];
+            Class<?>[] raw = new Class<?>[components.length];
+            for (int i = 0; i < components.length; i++) {
+                types[i] = components[i].getGenericType();
+                raw[i] = components[i].getType();
+                indexes.put(components[i].getName(), i);
+                Json json = components[i].getAnnotation(Json.class);
+                if (json != null && !json.value().isEmpty()) {
+                    indexes.put(json.value(), i);
+                }
+            }
+            try {
+                Constructor<?> ctor = type.getDeclaredConstructor(raw);
+                ctor.setAccessible(true);
+                this.constructor = MethodHandles.lookup().unreflectConstructor(ctor)
+                        .asSpreader(Object[].class, components.length)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                throw new IllegalStateException("Record non instanciable : " + type.getName(), e);
+            }
+        }
+    }
+}
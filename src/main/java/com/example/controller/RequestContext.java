@@ -0,0 +1,90 @@
+package com.example.controller;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import com.example.classe.UploadedFile;
+
+/**
+ * État propre à une requête, consommé par les {@link ArgumentBinder} :
+ * variables de chemin (indexées par slot), contenu multipart éventuel et
+ * corps de la requête.
+ */
+public class RequestContext {
+    public final HttpServletRequest request;
+    public final String[] pathVars;
+
+    private Map<String, String[]> multipartParams;
+    private Map<String, UploadedFile> uploadedFiles = Collections.emptyMap();
+    private boolean bodyRead;
+
+    public RequestContext(HttpServletRequest request, String[] pathVars) {
+        this.request = request;
+        this.pathVars = pathVars;
+    }
+
+    public void setMultipart(Map<String, String[]> params, Map<String, UploadedFile> files) {
+        this.multipartParams = params;
+        this.uploadedFiles = files;
+    }
+
+    public String[] getParameterValues(String name) {
+        if (multipartParams != null) {
+            String[] values = multipartParams.get(name);
+            if (values != null) {
+                return values;
+            }
+        }
+        return request.getParameterValues(name);
+    }
+
+    /**
+     * Tous les paramètres texte de la requête. Réservé aux liaisons qui en ont
+     * réellement besoin (Map, objets) : les autres lisent un nom précis.
+     */
+    public Map<String, String[]> getParameterMap() {
+        if (multipartParams == null || multipartParams.isEmpty()) {
+            return request.getParameterMap();
+        }
+        Map<String, String[]> merged = new HashMap<>(request.getParameterMap());
+        merged.putAll(multipartParams);
+        return merged;
+    }
+
+    public Map<String, UploadedFile> getUploadedFiles() {
+        return uploadedFiles;
+    }
+
+    /**
+     * Vrai si le corps est du JSON (application/json ou type +json).
+     */
+    public boolean isJson() {
+        String contentType = request.getContentType();
+        if (contentType == null) {
+            return false;
+        }
+        int end = contentType.indexOf(';');
+        String mime = (end < 0 ? contentType : contentType.substring(0, end)).trim().toLowerCase(Locale.ROOT);
+        return mime.equals("application/json") || mime.endsWith("+json");
+    }
+
+    /**
+     * Lecteur du corps dans l'encodage de la requête (UTF-8 par défaut). Le
+     * corps ne peut être lu qu'une fois.
+     */
+    public Reader openBodyReader() throws IOException {
+        if (bodyRead) {
+            throw new IllegalStateException("Corps de la requête déjà lu");
+        }
+        bodyRead = true;
+        String encoding = request.getCharacterEncoding();
+        Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+        return new InputStreamReader(request.getInputStream(), charset);
+    }
+}
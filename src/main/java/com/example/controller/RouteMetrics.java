@@ -0,0 +1,128 @@
+package com.example.controller;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs et latences d'une route, par phase : liaison des arguments
+ * (multipart compris), exécution du contrôleur, écriture de la réponse, et
+ * durée totale. Exportables au format texte Prometheus ou en JSON.
+ */
+public class RouteMetrics {
+
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+    public final LongAdder requests = new LongAdder();
+    public final LongAdder errors = new LongAdder();
+    // Refusées par la cloison (@Limit) ou le pool asynchrone
+    public final LongAdder rejected = new LongAdder();
+    public final LongAdder timeouts = new LongAdder();
+    // Réponses servies depuis le cache (@Cached)
+    public final LongAdder cacheHits = new LongAdder();
+
+    public final LatencyHistogram total = new LatencyHistogram();
+    public final LatencyHistogram bind = new LatencyHistogram();
+    public final LatencyHistogram invoke = new LatencyHistogram();
+    public final LatencyHistogram write = new LatencyHistogram();
+
+    public void complete(long elapsedNanos, boolean success) {
+        requests.increment();
+        if (!success) {
+            errors.increment();
+        }
+        total.recordNanos(elapsedNanos);
+    }
+
+    private Map<String, LatencyHistogram> phases() {
+        Map<String, LatencyHistogram> phases = new LinkedHashMap<>();
+        phases.put("total", total);
+        phases.put("bind", bind);
+        phases.put("invoke", invoke);
+        phases.put("write", write);
+        return phases;
+    }
+
+    // ==================== EXPORT ====================
+
+    public static void writePrometheus(Collection<ScannerController.RouteData> routes, Writer out)
+            throws IOException {
+        out.write("# TYPE framework_requests_total counter\n");
+        out.write("# TYPE framework_errors_total counter\n");
+        out.write("# TYPE framework_rejected_total counter\n");
+        out.write("# TYPE framework_timeouts_total counter\n");
+        out.write("# TYPE framework_cache_hits_total counter\n");
+        out.write("# TYPE framework_latency_seconds summary\n");
+
+        for (ScannerController.RouteData route : routes) {
+            RouteMetrics m = route.metrics;
+            String labels = "method=\"" + escape(route.httpMethod) + "\",route=\"" + escape(route.url) + "\"";
+
+            counter(out, "framework_requests_total", labels, m.requests.sum());
+            counter(out, "framework_errors_total", labels, m.errors.sum());
+            counter(out, "framework_rejected_total", labels, m.rejected.sum());
+            counter(out, "framework_timeouts_total", labels, m.timeouts.sum());
+            counter(out, "framework_cache_hits_total", labels, m.cacheHits.sum());
+
+            for (Map.Entry<String, LatencyHistogram> phase : m.phases().entrySet()) {
+                String phaseLabels = labels + ",phase=\"" + phase.getKey() + "\"";
+                LatencyHistogram h = phase.getValue();
+                for (double q : QUANTILES) {
+                    out.write("framework_latency_seconds{" + phaseLabels + ",quantile=\"" + q + "\"} "
+                            + seconds(h.percentileMicros(q)) + "\n");
+                }
+                out.write("framework_latency_seconds_sum{" + phaseLabels + "} " + seconds(h.getSumMicros()) + "\n");
+                out.write("framework_latency_seconds_count{" + phaseLabels + "} " + h.getCount() + "\n");
+            }
+        }
+    }
+
+    /**
+     * Vue des métriques sous forme de Map, à passer au sérialiseur JSON.
+     * Latences en microsecondes.
+     */
+    public static List<Map<String, Object>> toMap(Collection<ScannerController.RouteData> routes) {
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (ScannerController.RouteData route : routes) {
+            RouteMetrics m = route.metrics;
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("method", route.httpMethod);
+            entry.put("route", route.url);
+            entry.put("requests", m.requests.sum());
+            entry.put("errors", m.errors.sum());
+            entry.put("rejected", m.rejected.sum());
+            entry.put("timeouts", m.timeouts.sum());
+            entry.put("cacheHits", m.cacheHits.sum());
+
+            Map<String, Object> latency = new LinkedHashMap<>();
+            for (Map.Entry<String, LatencyHistogram> phase : m.phases().entrySet()) {
+                LatencyHistogram h = phase.getValue();
+                Map<String, Object> stats = new LinkedHashMap<>();
+                stats.put("count", h.getCount());
+                stats.put("sum", h.getSumMicros());
+                stats.put("max", h.getMaxMicros());
+                stats.put("p50", h.percentileMicros(0.5));
+                stats.put("p90", h.percentileMicros(0.9));
+                stats.put("p99", h.percentileMicros(0.99));
+                stats.put("p999", h.percentileMicros(0.999));
+                latency.put(phase.getKey(), stats);
+            }
+            entry.put("latencyMicros", latency);
+            list.add(entry);
+        }
+        return list;
+    }
+
+    private static void counter(Writer out, String name, String labels, long value) throws IOException {
+        out.write(name + "{" + labels + "} " + value + "\n");
+    }
+
+    private static String seconds(long micros) {
+        return Double.toString(micros / 1_000_000.0);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.controller;
+
+import java.util.*;
+
+import com.example.controller.ScannerController.RouteData;
+
+/**
+ * Arbre de préfixes (par segment d'URL) construit une seule fois à partir du
+ * résultat de {@link ScannerController#scan(String)}.
+ *
+ * La recherche parcourt le chemin en une seule passe, sans découper la chaîne :
+ * les segments statiques sont essayés avant les segments {param}. Chaque nœud
+ * porte une table de dispatch indexée par {@link HttpMethod} ; HEAD reprend
+ * la route GET et l'en-tête Allow (avec HEAD et OPTIONS) est précalculé.
+ */
+public class RouteTree {
+
+    static class Node {
+        final String segment;
+        Node[] statics = new Node[0];
+        Node param;
+        int paramCount;
+        List<RouteData> routes;
+        final RouteData[] byMethod = new RouteData[HttpMethod.COUNT];
+        Set<String> allowedMethods = Collections.emptySet();
+        String allow = "";
+        // Résultats partagés par méthode : routes sans variable de chemin et 405
+        final Match[] matches = new Match[HttpMethod.COUNT];
+        Match unroutable;
+
+        Node(String segment) {
+            this.segment = segment;
+        }
+
+        // HEAD reprend la route GET
+        RouteData routeFor(HttpMethod method) {
+            RouteData route = byMethod[method.ordinal()];
+            if (route == null && method == HttpMethod.HEAD) {
+                route = byMethod[HttpMethod.GET.ordinal()];
+            }
+            return route;
+        }
+
+        void shareMatches() {
+            for (HttpMethod method : HttpMethod.values()) {
+                RouteData route = routeFor(method);
+                matches[method.ordinal()] = route == null || paramCount == 0
+                        ? new Match(route, method, NO_VARS, this)
+                        : null;
+            }
+            unroutable = new Match(null, null, NO_VARS, this);
+        }
+
+        Node staticChild(String seg) {
+            for (Node child : statics) {
+                if (child.segment.equals(seg)) {
+                    return child;
+                }
+            }
+            Node child = new Node(seg);
+            statics = Arrays.copyOf(statics, statics.length + 1);
+            statics[statics.length - 1] = child;
+            return child;
+        }
+    }
+
+    /**
+     * Résultat d'une recherche : la route retenue (null si la méthode HTTP
+     * n'est pas autorisée), les variables de chemin par ordre d'apparition
+     * et les méthodes autorisées pour l'URL.
+     */
+    public static class Match {
+        public final RouteData route;
+        public final HttpMethod method;
+        public final String[] pathVars;
+        public final Set<String> allowedMethods;
+        public final String allow;
+
+        Match(RouteData route, HttpMethod method, String[] pathVars, Node node) {
+            this.route = route;
+            this.method = method;
+            this.pathVars = pathVars;
+            this.allowedMethods = node.allowedMethods;
+            this.allow = node.allow;
+        }
+    }
+
+    private static final String[] NO_VARS = new String[0];
+
+    private final Node root = new Node("");
+    private int maxParams = 0;
+    // Bornes des variables de chemin, réutilisées par thread
+    private final ThreadLocal<int[]> bounds = ThreadLocal.withInitial(() -> new int[maxParams * 2]);
+
+    public RouteTree(Map<String, List<RouteData>> routes) {
+        for (Map.Entry<String, List<RouteData>> entry : routes.entrySet()) {
+            for (RouteData route : entry.getValue()) {
+                insert(entry.getKey(), route);
+            }
+        }
+    }
+
+    private void insert(String pattern, RouteData route) {
+        Node node = root;
+        int params = 0;
+        for (String seg : pattern.split("/")) {
+            if (seg.isEmpty()) {
+                continue;
+            }
+            if (seg.startsWith("{")) {
+                if (node.param == null) {
+                    node.param = new Node(seg);
+                }
+                node = node.param;
+                params++;
+            } else {
+                node = node.staticChild(seg);
+            }
+        }
+        maxParams = Math.max(maxParams, params);
+        node.paramCount = params;
+
+        if (node.routes == null) {
+            node.routes = new ArrayList<>();
+        }
+        node.routes.add(route);
+
+        HttpMethod method = HttpMethod.of(route.httpMethod);
+        if (method == null) {
+            throw new IllegalStateException("Méthode HTTP non routable : " + route.httpMethod + " " + pattern);
+        }
+        RouteData existing = node.byMethod[method.ordinal()];
+        if (existing != null) {
+            throw new IllegalStateException("Route " + method + " " + pattern + " déclarée deux fois : "
+                    + describe(existing) + " et " + describe(route));
+        }
+        node.byMethod[method.ordinal()] = route;
+
+        // Précalculer les méthodes autorisées et l'en-tête Allow
+        Set<String> methods = new LinkedHashSet<>();
+        for (HttpMethod m : HttpMethod.values()) {
+            if (node.byMethod[m.ordinal()] != null
+                    || m == HttpMethod.HEAD && node.byMethod[HttpMethod.GET.ordinal()] != null
+                    || m == HttpMethod.OPTIONS) {
+                methods.add(m.name());
+            }
+        }
+        node.allowedMethods = Collections.unmodifiableSet(methods);
+        node.allow = String.join(", ", methods);
+        node.shareMatches();
+    }
+
+    private static String describe(RouteData route) {
+        return route.method.getDeclaringClass().getName() + "." + route.method.getName() + " (" + route.url + ")";
+    }
+
+    /**
+     * Vrai si le premier segment du chemin est un segment fixe d'une route
+     * (ex: /api) : le chemin appartient aux routes, pas aux fichiers.
+     */
+    public boolean hasStaticPrefix(String path) {
+        int start = path.startsWith("/") ? 1 : 0;
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = path.length();
+        }
+        if (end == start) {
+            return false;
+        }
+        for (Node child : root.statics) {
+            if (child.segment.length() == end - start && path.startsWith(child.segment, start)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cherche la route correspondant au chemin. Retourne null si aucune URL
+     * ne correspond (404) ; un Match dont la route est null si l'URL existe
+     * mais pas pour cette méthode (405).
+     */
+    public Match find(String path, String httpMethod) {
+        return find(path, HttpMethod.of(httpMethod));
+    }
+
+    /**
+     * Comme {@link #find(String, String)} ; method peut être null (méthode non
+     * routable : 405).
+     */
+    public Match find(String path, HttpMethod method) {
+        int[] bounds = maxParams > 0 ? this.bounds.get() : null;
+        Node node = lookup(root, path, 0, bounds, 0);
+        if (node == null) {
+            return null;
+        }
+        if (method == null) {
+            return node.unroutable;
+        }
+        Match shared = node.matches[method.ordinal()];
+        if (shared != null) {
+            return shared;
+        }
+
+        // Route avec variables de chemin : seul cas qui alloue
+        String[] vars = new String[node.paramCount];
+        for (int i = 0; i < vars.length; i++) {
+            vars[i] = path.substring(bounds[2 * i], bounds[2 * i + 1]);
+        }
+        return new Match(node.routeFor(method), method, vars, node);
+    }
+
+    private Node lookup(Node node, String path, int pos, int[] bounds, int slot) {
+        int len = path.length();
+        while (pos < len && path.charAt(pos) == '/') {
+            pos++;
+        }
+        if (pos == len) {
+            return node.routes != null ? node : null;
+        }
+
+        int end = path.indexOf('/', pos);
+        if (end < 0) {
+            end = len;
+        }
+        int segLen = end - pos;
+
+        // 1. Segments statiques d'abord
+        for (Node child : node.statics) {
+            if (child.segment.length() == segLen && path.regionMatches(pos, child.segment, 0, segLen)) {
+                Node found = lookup(child, path, end, bounds, slot);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+
+        // 2. Puis le segment {param}
+        if (node.param != null) {
+            bounds[2 * slot] = pos;
+            bounds[2 * slot + 1] = end;
+            return lookup(node.param, path, end, bounds, slot + 1);
+        }
+
+        return null;
+    }
+}
@@ -1,17 +1,40 @@
 package com.example.controller;
 
-import java.io.File;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import com.example.annotation.*;
+import com.example.classe.MultipartStream;
+import com.example.processor.RouteIndexProcessor;
 
 public class ScannerController {
 
+    // Une cloison par contrôleur annoté @Limit, commune à toutes ses routes
+    private static final ClassValue<Optional<ConcurrencyLimiter>> CONTROLLER_LIMITERS = new ClassValue<>() {
+        @Override
+        protected Optional<ConcurrencyLimiter> computeValue(Class<?> type) {
+            return Optional.ofNullable(ConcurrencyLimiter.of(type.getAnnotation(Limit.class)));
+        }
+    };
+
+    private static final Object[] NO_ARGS = new Object[0];
+
     public static class RouteData {
+        // Instance partagée du contrôleur, null s'il est fourni à chaque appel
         public Object controller;
+        // Fournisseur du contrôleur (prototype, requête, singleton paresseux), sinon null
+        public Supplier<?> controllerProvider;
         public Method method;
         public String url;
         public String httpMethod;
@@ -20,22 +43,150 @@ public class ScannerController {
         public boolean hasComplexObject = false;
         public boolean returnsJson = false;
         public boolean hasUploadParam = false;
+        // Parties multipart lues en flux (paramètre MultipartStream)
+        public boolean hasMultipartStream = false;
+        // Limites multipart de la route (null si aucune)
+        public Multipart multipart;
+        // Exécution asynchrone (@Async sur la méthode ou le contrôleur)
+        public boolean async = false;
+        public long asyncTimeout = -1;
+        // Cloison de concurrence (@Limit), partagée par le contrôleur si
+        // l'annotation est sur la classe ; null si aucune
+        public ConcurrencyLimiter limiter;
+        // Cache de la réponse (@Cached, routes GET), null si aucun
+        public Cached cached;
+        // Réponses conditionnelles (@ETag sur la méthode ou le contrôleur), null si aucune
+        public ETag etag;
+        // Méthode du jeton de version (@ETag(version)), null si l'ETag vient du corps
+        public Method versionMethod;
+        private MethodHandle versionInvoker;
+        // Intercepteurs de la route (résolus au démarrage), null si aucun
+        public InterceptorChain interceptors;
+        // Compteurs et histogrammes de latence de la route
+        public final RouteMetrics metrics = new RouteMetrics();
+        // Noms des variables de chemin, dans l'ordre d'apparition dans l'URL
+        public String[] pathVarNames;
+
+        // Métadonnées des paramètres, calculées une seule fois au scan
+        public final Parameter[] parameters;
+        public final Class<?>[] parameterTypes;
+        public final String[] parameterNames;
+
+        // (Object[] args) -> Object, lié au contrôleur
+        private final MethodHandle invoker;
+
+        // Plan de liaison : un binder par paramètre de la méthode
+        public final ArgumentBinder[] binders;
 
         public RouteData(Object controller, Method method, String url, String httpMethod) {
+            this(controller, method, url, httpMethod, null);
+        }
+
+        /**
+         * @param parameterNames noms des paramètres connus à la compilation
+         *                       (index des routes), ou null pour les lire par
+         *                       réflexion (nécessite -parameters)
+         */
+        public RouteData(Object controller, Method method, String url, String httpMethod, String[] parameterNames) {
+            this(controller, null, method, url, httpMethod, parameterNames);
+        }
+
+        /**
+         * @param controllerProvider fournisseur appelé à chaque invocation à la
+         *                           place d'une instance partagée (controller null)
+         */
+        public RouteData(Object controller, Supplier<?> controllerProvider, Method method, String url,
+                String httpMethod, String[] parameterNames) {
             this.controller = controller;
+            this.controllerProvider = controllerProvider;
             this.method = method;
             this.url = url;
             this.httpMethod = httpMethod;
+            this.parameters = method.getParameters();
+            this.parameterTypes = method.getParameterTypes();
+            if (parameterNames != null && parameterNames.length == parameters.length) {
+                this.parameterNames = parameterNames;
+            } else {
+                this.parameterNames = new String[parameters.length];
+                for (int i = 0; i < parameters.length; i++) {
+                    this.parameterNames[i] = parameters[i].isAnnotationPresent(Request.class)
+                            ? parameters[i].getAnnotation(Request.class).value()
+                            : parameters[i].getName();
+                }
+            }
+            this.invoker = compileInvoker(controller, controllerProvider, method);
+            analyzePathVars(url);
             analyzeParameters(method);
             analyzeReturnType(method);
+            this.binders = ArgumentBinder.plan(this);
+        }
+
+        /**
+         * Appelle la méthode du contrôleur. Les exceptions levées par le
+         * contrôleur sont propagées telles quelles (pas d'InvocationTargetException).
+         */
+        public Object invoke(Object[] args) throws Exception {
+            try {
+                return invoker.invokeExact(args);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        }
+
+        /**
+         * Jeton de version de la ressource, avec les arguments déjà liés de la route.
+         */
+        public Object version(Object[] args) throws Exception {
+            try {
+                return versionInvoker.invokeExact(versionMethod.getParameterCount() == 0 ? NO_ARGS : args);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        }
+
+        private static MethodHandle compileInvoker(Object controller, Supplier<?> provider, Method method) {
+            try {
+                method.setAccessible(true);
+                MethodHandle handle = MethodHandles.lookup().unreflect(method);
+                if (!Modifier.isStatic(method.getModifiers())) {
+                    if (provider != null) {
+                        // (args...) -> method(provider.get(), args...)
+                        MethodHandle get = MethodHandles.lookup()
+                                .findVirtual(Supplier.class, "get", MethodType.methodType(Object.class))
+                                .bindTo(provider)
+                                .asType(MethodType.methodType(method.getDeclaringClass()));
+                        handle = MethodHandles.foldArguments(handle, get);
+                    } else {
+                        handle = handle.bindTo(controller);
+                    }
+                }
+                return handle
+                        .asSpreader(Object[].class, method.getParameterCount())
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+            } catch (IllegalAccessException | NoSuchMethodException e) {
+                throw new IllegalStateException("Méthode inaccessible : " + method, e);
+            }
+        }
+
+        private void analyzePathVars(String url) {
+            List<String> names = new ArrayList<>();
+            for (String seg : url.split("/")) {
+                if (seg.startsWith("{")) {
+                    names.add(seg.substring(1, seg.length() - 1));
+                }
+            }
+            this.pathVarNames = names.toArray(new String[0]);
         }
 
         private void analyzeParameters(Method method) {
-            Parameter[] params = method.getParameters();
-            for (Parameter param : params) {
-                String name = param.isAnnotationPresent(Request.class) ? param.getAnnotation(Request.class).value()
-                        : param.getName();
-                Class<?> type = param.getType();
+            for (int i = 0; i < parameters.length; i++) {
+                Parameter param = parameters[i];
+                String name = parameterNames[i];
+                Class<?> type = parameterTypes[i];
                 paramTypes.put(name, type);
 
                 // Vérifier Map<String, Object>
@@ -45,6 +196,10 @@ public class ScannerController {
                         hasMapParam = true;
                     }
                 }
+                // Vérifier MultipartStream (mode flux)
+                else if (type.equals(MultipartStream.class)) {
+                    hasMultipartStream = true;
+                }
                 // Vérifier UploadedFile
                 else if (type.getName().equals("com.example.classe.UploadedFile")) {
                     hasUploadParam = true;
@@ -57,39 +212,77 @@ public class ScannerController {
                     }
                 }
                 // Vérifier objets complexes (non-upload)
-                else if (isComplexObject(type)) {
+                else if (ArgumentBinder.isComplexObject(type)) {
                     hasComplexObject = true;
                 }
             }
         }
 
+        // Même signature que la route, sinon sans paramètre
+        private static Method findVersionMethod(Method route, String name) {
+            Class<?> type = route.getDeclaringClass();
+            try {
+                return type.getDeclaredMethod(name, route.getParameterTypes());
+            } catch (NoSuchMethodException e) {
+                try {
+                    return type.getDeclaredMethod(name);
+                } catch (NoSuchMethodException e2) {
+                    throw new IllegalStateException("Méthode de version introuvable : "
+                            + type.getName() + "." + name, e2);
+                }
+            }
+        }
+
         private void analyzeReturnType(Method method) {
             this.returnsJson = method.isAnnotationPresent(Json.class);
-        }
+            this.multipart = method.getAnnotation(Multipart.class);
+            this.cached = method.getAnnotation(Cached.class);
+
+            Async asyncAnnotation = method.getAnnotation(Async.class);
+            if (asyncAnnotation == null) {
+                asyncAnnotation = method.getDeclaringClass().getAnnotation(Async.class);
+            }
+            if (asyncAnnotation != null) {
+                this.async = true;
+                this.asyncTimeout = asyncAnnotation.timeout();
+            }
+
+            this.etag = method.getAnnotation(ETag.class);
+            if (etag == null) {
+                etag = method.getDeclaringClass().getAnnotation(ETag.class);
+            }
+            if (etag != null && !etag.version().isEmpty()) {
+                this.versionMethod = findVersionMethod(method, etag.version());
+                this.versionInvoker = compileInvoker(controller, controllerProvider, versionMethod);
+            }
 
-        private boolean isComplexObject(Class<?> type) {
-            return !type.isPrimitive() &&
-                    !type.equals(String.class) &&
-                    !type.equals(Integer.class) &&
-                    !type.equals(Double.class) &&
-                    !type.equals(Boolean.class) &&
-                    !type.equals(Long.class) &&
-                    !type.equals(Float.class) &&
-                    !type.getName().equals("com.example.classe.UploadedFile") &&
-                    !Map.class.isAssignableFrom(type) &&
-                    !List.class.isAssignableFrom(type);
+            Limit limit = method.getAnnotation(Limit.class);
+            this.limiter = limit != null
+                    ? ConcurrencyLimiter.of(limit)
+                    : CONTROLLER_LIMITERS.get(method.getDeclaringClass()).orElse(null);
         }
     }
 
     public static Map<String, List<RouteData>> scan(String basePackage) throws Exception {
+        return scan(basePackage, new Container());
+    }
+
+    /**
+     * Contrôleurs créés par le conteneur (singletons construits en parallèle
+     * avant la création des routes).
+     */
+    public static Map<String, List<RouteData>> scan(String basePackage, Container container) throws Exception {
         Map<String, List<RouteData>> routes = new HashMap<>();
+        List<Class<?>> classes = trouverControllers(basePackage);
+        container.start(classes);
 
-        for (Class<?> clazz : trouverControllers(basePackage)) {
-            Object controller = clazz.getDeclaredConstructor().newInstance();
+        for (Class<?> clazz : classes) {
+            Object controller = container.isEager(clazz) ? container.get(clazz) : null;
+            Supplier<?> provider = controller == null ? container.provider(clazz) : null;
             String baseUrl = clazz.getAnnotation(Controller.class).value();
 
             for (Method method : clazz.getDeclaredMethods()) {
-                RouteData route = createRoute(controller, method, baseUrl);
+                RouteData route = createRoute(controller, provider, method, baseUrl);
                 if (route != null) {
                     String url = route.url;
                     routes.computeIfAbsent(url, k -> new ArrayList<>()).add(route);
@@ -100,63 +293,212 @@ public class ScannerController {
         return routes;
     }
 
-    private static RouteData createRoute(Object controller, Method method, String baseUrl) {
-        String httpMethod = null;
-        String path = null;
+    /**
+     * Charge les routes depuis l'index généré à la compilation par
+     * RouteIndexProcessor. Retourne null si aucun index n'est présent ou s'il
+     * ne correspond plus aux classes (l'appelant se rabat alors sur scan).
+     */
+    public static Map<String, List<RouteData>> loadIndex(String basePackage) throws Exception {
+        return loadIndex(basePackage, new Container());
+    }
 
-        if (method.isAnnotationPresent(Get.class)) {
-            httpMethod = "GET";
-            path = method.getAnnotation(Get.class).value();
-        } else if (method.isAnnotationPresent(Post.class)) {
-            httpMethod = "POST";
-            path = method.getAnnotation(Post.class).value();
-        } else if (method.isAnnotationPresent(Route.class)) {
-            httpMethod = "GET";
-            path = method.getAnnotation(Route.class).value();
-        }
+    public static Map<String, List<RouteData>> loadIndex(String basePackage, Container container) throws Exception {
+        return loadIndex(basePackage, container, reason -> { });
+    }
 
-        if (path != null) {
-            return new RouteData(controller, method, baseUrl + path, httpMethod);
+    /**
+     * Comme {@link #loadIndex(String, Container)}, la raison d'un index
+     * obsolète étant transmise à log (journal du servlet).
+     */
+    public static Map<String, List<RouteData>> loadIndex(String basePackage, Container container,
+            Consumer<String> log) throws Exception {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        Enumeration<URL> indexes = loader.getResources(RouteIndexProcessor.INDEX_PATH);
+        if (!indexes.hasMoreElements()) {
+            return null;
         }
 
-        return null;
-    }
+        String prefix = basePackage == null || basePackage.isEmpty() ? "" : basePackage + ".";
+        Map<String, List<RouteData>> routes = new HashMap<>();
 
-    public static List<Class<?>> trouverControllers(String basePackage) {
-        List<Class<?>> classesControllers = new ArrayList<>();
         try {
-            String chemin = basePackage.replace('.', '/');
-            URL resource = Thread.currentThread().getContextClassLoader().getResource(chemin);
+            // 1. Lignes de l'index et classes des contrôleurs
+            List<String[]> entries = new ArrayList<>();
+            Set<Class<?>> classes = new LinkedHashSet<>();
+            while (indexes.hasMoreElements()) {
+                URL index = indexes.nextElement();
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.isEmpty() || line.startsWith("#")) {
+                            continue;
+                        }
+                        // controleur, base, méthode HTTP, chemin, méthode, drapeaux, types, noms
+                        String[] f = line.split("\t", -1);
+                        if (!f[0].startsWith(prefix)) {
+                            continue;
+                        }
+                        classes.add(Class.forName(f[0], true, loader));
+                        entries.add(f);
+                    }
+                }
+            }
 
-            if (resource != null) {
-                File repertoire = new File(resource.getFile());
-                scannerRepertoire(repertoire, basePackage, classesControllers);
+            // 2. Contrôleurs créés par le conteneur (singletons en parallèle)
+            container.start(classes);
+            Map<Class<?>, Object> controllers = new HashMap<>();
+            Map<Class<?>, Supplier<?>> providers = new HashMap<>();
+            for (Class<?> clazz : classes) {
+                if (container.isEager(clazz)) {
+                    controllers.put(clazz, container.get(clazz));
+                } else {
+                    providers.put(clazz, container.provider(clazz));
+                }
             }
 
-        } catch (Exception e) {
-            e.printStackTrace();
+            // 3. Routes, vérifiées contre les annotations actuelles
+            Map<Class<?>, Integer> indexed = new HashMap<>();
+            for (String[] f : entries) {
+                Class<?> clazz = Class.forName(f[0], true, loader);
+                String[] typeNames = f[6].isEmpty() ? new String[0] : f[6].split(",");
+                Class<?>[] types = new Class<?>[typeNames.length];
+                for (int i = 0; i < types.length; i++) {
+                    types[i] = typeForName(typeNames[i], loader);
+                }
+                String[] names = f[7].isEmpty() ? new String[0] : f[7].split(",");
+
+                Method method = clazz.getDeclaredMethod(f[4], types);
+                String stale = checkEntry(f, clazz, method);
+                if (stale != null) {
+                    log.accept("Index des routes obsolète, scan du classpath : " + stale);
+                    return null;
+                }
+                RouteData route = new RouteData(controllers.get(clazz), providers.get(clazz),
+                        method, f[1] + f[3], f[2], names);
+                routes.computeIfAbsent(route.url, k -> new ArrayList<>()).add(route);
+                indexed.merge(clazz, 1, Integer::sum);
+            }
+
+            // 4. Routes ajoutées sans passer par le processeur
+            for (Map.Entry<Class<?>, Integer> e : indexed.entrySet()) {
+                int declared = 0;
+                for (Method method : e.getKey().getDeclaredMethods()) {
+                    if (routeMapping(method) != null) {
+                        declared++;
+                    }
+                }
+                if (declared != e.getValue()) {
+                    log.accept("Index des routes obsolète, scan du classpath : "
+                            + e.getKey().getName() + " déclare " + declared + " routes, "
+                            + e.getValue() + " indexées");
+                    return null;
+                }
+            }
+        } catch (ClassNotFoundException | NoSuchMethodException | ArrayIndexOutOfBoundsException e) {
+            log.accept("Index des routes obsolète, scan du classpath : " + e);
+            return null;
         }
 
-        return classesControllers;
+        // Aucune entrée pour ce package : l'index vient d'un autre module
+        return routes.isEmpty() ? null : routes;
     }
 
-    private static void scannerRepertoire(File rep, String pkg, List<Class<?>> list) {
-        if (!rep.exists() || !rep.isDirectory())
-            return;
+    /**
+     * Compare une ligne de l'index aux annotations de la méthode ; retourne
+     * la différence trouvée, ou null si la ligne est à jour.
+     */
+    private static String checkEntry(String[] f, Class<?> clazz, Method method) {
+        Controller controller = clazz.getAnnotation(Controller.class);
+        if (controller == null || !controller.value().equals(f[1])) {
+            return clazz.getName() + " : url de base modifiée";
+        }
+        String[] mapping = routeMapping(method);
+        if (mapping == null || !mapping[0].equals(f[2]) || !mapping[1].equals(f[3])) {
+            return clazz.getName() + "." + method.getName() + " : route modifiée";
+        }
 
-        for (File f : rep.listFiles()) {
-            if (f.isDirectory()) {
-                scannerRepertoire(f, pkg + "." + f.getName(), list);
-            } else if (f.getName().endsWith(".class")) {
-                String nom = f.getName().replace(".class", "");
-                try {
-                    Class<?> c = Class.forName(pkg + "." + nom);
-                    if (c.isAnnotationPresent(Controller.class)) {
-                        list.add(c);
-                    }
-                } catch (Exception ignored) {
-                }
+        List<String> flags = f[5].isEmpty() ? List.of() : Arrays.asList(f[5].split(","));
+        boolean upload = false;
+        boolean map = false;
+        for (Parameter param : method.getParameters()) {
+            Class<?> type = param.getType();
+            if (type.equals(Map.class)) {
+                map = true;
+            } else if (type.getName().equals("com.example.classe.UploadedFile")
+                    || (type.equals(List.class)
+                            && param.getParameterizedType().getTypeName().contains("UploadedFile"))) {
+                upload = true;
             }
         }
+        if (flags.contains("json") != method.isAnnotationPresent(Json.class)
+                || flags.contains("upload") != upload
+                || flags.contains("map") != map) {
+            return clazz.getName() + "." + method.getName() + " : drapeaux modifiés";
+        }
+        return null;
+    }
+
+    private static Class<?> typeForName(String name, ClassLoader loader) throws ClassNotFoundException {
+        switch (name) {
+            case "int":
+                return int.class;
+            case "long":
+                return long.class;
+            case "double":
+                return double.class;
+            case "float":
+                return float.class;
+            case "boolean":
+                return boolean.class;
+            case "byte":
+                return byte.class;
+            case "short":
+                return short.class;
+            case "char":
+                return char.class;
+            default:
+                return Class.forName(name, false, loader);
+        }
+    }
+
+    private static RouteData createRoute(Object controller, Supplier<?> provider, Method method, String baseUrl) {
+        String[] mapping = routeMapping(method);
+        if (mapping != null) {
+            return new RouteData(controller, provider, method, baseUrl + mapping[1], mapping[0], null);
+        }
+
+        return null;
+    }
+
+    /**
+     * Méthode HTTP et chemin déclarés par l'annotation de route, ou null.
+     */
+    private static String[] routeMapping(Method method) {
+        if (method.isAnnotationPresent(Get.class)) {
+            return new String[] { "GET", method.getAnnotation(Get.class).value() };
+        } else if (method.isAnnotationPresent(Post.class)) {
+            return new String[] { "POST", method.getAnnotation(Post.class).value() };
+        } else if (method.isAnnotationPresent(Put.class)) {
+            return new String[] { "PUT", method.getAnnotation(Put.class).value() };
+        } else if (method.isAnnotationPresent(Delete.class)) {
+            return new String[] { "DELETE", method.getAnnotation(Delete.class).value() };
+        } else if (method.isAnnotationPresent(Patch.class)) {
+            return new String[] { "PATCH", method.getAnnotation(Patch.class).value() };
+        } else if (method.isAnnotationPresent(Route.class)) {
+            return new String[] { "GET", method.getAnnotation(Route.class).value() };
+        }
+        return null;
+    }
+
+    public static List<Class<?>> trouverControllers(String basePackage) {
+        try {
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            ClassPathScanner scanner = new ClassPathScanner(loader, Controller.class);
+            return scanner.load(scanner.scan(basePackage), Controller.class);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
     }
-}
\ No newline at end of file
+}
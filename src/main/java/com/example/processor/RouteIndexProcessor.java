@@ -0,0 +1,255 @@
+package com.example.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import com.example.annotation.*;
+
+/**
+ * Génère à la compilation l'index des routes ({@value #INDEX_PATH}), lu par
+ * UrlServlet au démarrage à la place du scan du classpath.
+ *
+ * Une ligne par route, champs séparés par des tabulations :
+ * contrôleur, url de base, méthode HTTP, chemin, nom de méthode, drapeaux
+ * (json, upload, map), types des paramètres, noms des paramètres.
+ *
+ * En compilation incrémentale, seules les classes recompilées passent par le
+ * processeur : les lignes de l'index existant des autres contrôleurs encore
+ * présents sont conservées.
+ */
+@SupportedAnnotationTypes({
+        "com.example.annotation.Controller",
+        "com.example.annotation.Get",
+        "com.example.annotation.Post",
+        "com.example.annotation.Put",
+        "com.example.annotation.Delete",
+        "com.example.annotation.Patch",
+        "com.example.annotation.Route",
+        "com.example.annotation.Json",
+        "com.example.annotation.Request"
+})
+public class RouteIndexProcessor extends AbstractProcessor {
+
+    public static final String INDEX_PATH = "META-INF/framework/routes.idx";
+
+    private final List<String> lines = new ArrayList<>();
+    private final Set<String> processed = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return false;
+        }
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(Controller.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                continue;
+            }
+            TypeElement controller = (TypeElement) element;
+            String baseUrl = controller.getAnnotation(Controller.class).value();
+            processed.add(binaryName(controller.asType()));
+
+            for (Element member : controller.getEnclosedElements()) {
+                if (member.getKind() == ElementKind.METHOD) {
+                    String line = routeLine(controller, baseUrl, (ExecutableElement) member);
+                    if (line != null) {
+                        lines.add(line);
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private String routeLine(TypeElement controller, String baseUrl, ExecutableElement method) {
+        String httpMethod;
+        String path;
+
+        if (method.getAnnotation(Get.class) != null) {
+            httpMethod = "GET";
+            path = method.getAnnotation(Get.class).value();
+        } else if (method.getAnnotation(Post.class) != null) {
+            httpMethod = "POST";
+            path = method.getAnnotation(Post.class).value();
+        } else if (method.getAnnotation(Put.class) != null) {
+            httpMethod = "PUT";
+            path = method.getAnnotation(Put.class).value();
+        } else if (method.getAnnotation(Delete.class) != null) {
+            httpMethod = "DELETE";
+            path = method.getAnnotation(Delete.class).value();
+        } else if (method.getAnnotation(Patch.class) != null) {
+            httpMethod = "PATCH";
+            path = method.getAnnotation(Patch.class).value();
+        } else if (method.getAnnotation(Route.class) != null) {
+            httpMethod = "GET";
+            path = method.getAnnotation(Route.class).value();
+        } else {
+            return null;
+        }
+
+        List<String> types = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        boolean upload = false;
+        boolean map = false;
+
+        for (VariableElement param : method.getParameters()) {
+            TypeMirror type = processingEnv.getTypeUtils().erasure(param.asType());
+            String typeName = binaryName(type);
+            types.add(typeName);
+
+            Request request = param.getAnnotation(Request.class);
+            names.add(request != null ? request.value() : param.getSimpleName().toString());
+
+            if (typeName.equals("java.util.Map")) {
+                map = true;
+            } else if (typeName.equals("com.example.classe.UploadedFile")
+                    || (typeName.equals("java.util.List") && param.asType().toString().contains("UploadedFile"))) {
+                upload = true;
+            }
+        }
+
+        List<String> flags = new ArrayList<>();
+        if (method.getAnnotation(Json.class) != null) {
+            flags.add("json");
+        }
+        if (upload) {
+            flags.add("upload");
+        }
+        if (map) {
+            flags.add("map");
+        }
+
+        return String.join("\t",
+                binaryName(controller.asType()),
+                baseUrl,
+                httpMethod,
+                path,
+                method.getSimpleName().toString(),
+                String.join(",", flags),
+                String.join(",", types),
+                String.join(",", names));
+    }
+
+    /**
+     * Nom accepté par Class.forName (classes imbriquées avec $, tableaux
+     * en descripteur), ou nom du type primitif.
+     */
+    private String binaryName(TypeMirror type) {
+        TypeKind kind = type.getKind();
+        if (kind.isPrimitive()) {
+            return kind.name().toLowerCase(Locale.ROOT);
+        }
+        if (kind == TypeKind.ARRAY) {
+            return "[" + descriptor(((ArrayType) type).getComponentType());
+        }
+        if (kind == TypeKind.DECLARED) {
+            TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+            return processingEnv.getElementUtils().getBinaryName(element).toString();
+        }
+        return "java.lang.Object";
+    }
+
+    private String descriptor(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return "Z";
+            case BYTE:
+                return "B";
+            case CHAR:
+                return "C";
+            case SHORT:
+                return "S";
+            case INT:
+                return "I";
+            case LONG:
+                return "J";
+            case FLOAT:
+                return "F";
+            case DOUBLE:
+                return "D";
+            case ARRAY:
+                return "[" + descriptor(((ArrayType) type).getComponentType());
+            default:
+                return "L" + binaryName(processingEnv.getTypeUtils().erasure(type)) + ";";
+        }
+    }
+
+    /**
+     * Lignes de l'index précédent dont le contrôleur n'a pas été recompilé et
+     * existe toujours avec @Controller.
+     */
+    private List<String> previousLines() {
+        List<String> kept = new ArrayList<>();
+        try {
+            FileObject file = processingEnv.getFiler()
+                    .getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_PATH);
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(file.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int tab = line.indexOf('\t');
+                    if (line.isEmpty() || line.startsWith("#") || tab < 0) {
+                        continue;
+                    }
+                    String controller = line.substring(0, tab);
+                    if (processed.contains(controller)) {
+                        continue;
+                    }
+                    TypeElement element = processingEnv.getElementUtils()
+                            .getTypeElement(controller.replace('$', '.'));
+                    if (element != null && element.getAnnotation(Controller.class) != null) {
+                        kept.add(line);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // Pas d'index précédent (compilation complète)
+        }
+        return kept;
+    }
+
+    private void writeIndex() {
+        lines.addAll(previousLines());
+        if (lines.isEmpty()) {
+            return;
+        }
+        Collections.sort(lines);
+        try {
+            FileObject file = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_PATH);
+            try (Writer out = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String line : lines) {
+                    out.write(line);
+                    out.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Index des routes non généré : " + e.getMessage());
+        }
+    }
+}
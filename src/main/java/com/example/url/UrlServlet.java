@@ -1,34 +1,276 @@
 package com.example.url;
 
 import java.io.*;
-import java.lang.reflect.Field;
-import java.lang.reflect.Parameter;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.time.Instant;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import java.util.stream.BaseStream;
+import java.util.zip.CRC32C;
+import java.util.zip.Deflater;
 import jakarta.servlet.*;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.*;
 
 import com.example.classe.*;
+import com.example.annotation.Cached;
+import com.example.annotation.Multipart;
+import com.example.controller.ArgumentBinder;
+import com.example.controller.ConcurrencyLimiter;
+import com.example.controller.Container;
+import com.example.controller.HttpMethod;
+import com.example.controller.Interceptor;
+import com.example.controller.InterceptorChain;
+import com.example.controller.RequestContext;
+import com.example.controller.RouteMetrics;
+import com.example.controller.RouteTree;
 import com.example.controller.ScannerController;
-import com.example.annotation.Request;
-import com.example.annotation.Json;
 
-@WebServlet("/*")
+@WebServlet(urlPatterns = "/*", asyncSupported = true)
 public class UrlServlet extends HttpServlet {
+    // Résultat d'une route dont le client possède déjà la version courante
+    private static final Object NOT_MODIFIED = new Object();
+    // Nom de fichier avec empreinte de contenu : app.3f2a9c1d.js, style-9b1e04aa.css
+    private static final Pattern FINGERPRINTED = Pattern.compile(".*[.-][0-9a-fA-F]{8,}\\.[A-Za-z0-9]+");
+
+    // Nombre d'éléments écrits entre deux flush d'une réponse JSON en flux
+    private static final int STREAM_FLUSH_EVERY = 256;
+
     private Map<String, List<ScannerController.RouteData>> routes;
-    private Map<String, Map<String, String>> pathVarsCache = new HashMap<>();
+    private RouteTree routeTree;
+    private JsonSerializer jsonSerializer;
+    private long uploadSpillThreshold = UploadedFile.DEFAULT_SPILL_THRESHOLD;
+
+    // Mode asynchrone : global (init-param async-mode) ou par route (@Async)
+    private boolean asyncAll = false;
+    private long asyncTimeout = 30_000;
+    private ExecutorService asyncExecutor;
+
+    // Réponses des routes @Cached (taille max : init-param cache-max-bytes)
+    private ResponseCache responseCache;
+
+    // Compression des réponses (null si désactivée par l'init-param compression=false)
+    private DeflaterPool deflaterPool;
+    private int compressionThreshold = 1024;
+    // Durée de cache (s) des ressources statiques à empreinte
+    private long staticMaxAge = 365L * 24 * 3600;
+
+    // Index des fichiers statiques (plus d'appel à getResource par requête)
+    private StaticResources staticResources;
+
+    // Conteneur des contrôleurs et de leurs dépendances
+    private Container container;
+
+    // Moteurs de vue par extension (sans moteur : forward JSP)
+    private ViewEngines viewEngines;
+
+    // Chemin de la route des métriques (init-param metrics-path), null = désactivée
+    private String metricsPath;
 
     @Override
     public void init() throws ServletException {
+        jsonSerializer = createJsonSerializer(getServletConfig().getInitParameter("json-serializer"));
+        // Exposé pour que l'application puisse enregistrer ses JsonTypeWriter
+        getServletContext().setAttribute(JsonSerializer.class.getName(), jsonSerializer);
+
+        String threshold = getServletConfig().getInitParameter("upload-spill-threshold");
+        if (threshold != null) {
+            uploadSpillThreshold = Long.parseLong(threshold.trim());
+        }
+
+        asyncAll = "true".equals(getServletConfig().getInitParameter("async-mode"));
+        String timeout = getServletConfig().getInitParameter("async-timeout");
+        if (timeout != null) {
+            asyncTimeout = Long.parseLong(timeout.trim());
+        }
+
+        metricsPath = getServletConfig().getInitParameter("metrics-path");
+
+        if (!"false".equals(getServletConfig().getInitParameter("compression"))) {
+            String level = getServletConfig().getInitParameter("compression-level");
+            deflaterPool = new DeflaterPool(level != null ? Integer.parseInt(level.trim()) : Deflater.DEFAULT_COMPRESSION,
+                    Runtime.getRuntime().availableProcessors() * 4);
+            String compressionMin = getServletConfig().getInitParameter("compression-threshold");
+            if (compressionMin != null) {
+                compressionThreshold = Integer.parseInt(compressionMin.trim());
+            }
+        }
+        String lookupCache = getServletConfig().getInitParameter("static-lookup-cache");
+        staticResources = new StaticResources(getServletContext(),
+                !"false".equals(getServletConfig().getInitParameter("static-index")),
+                lookupCache != null ? Integer.parseInt(lookupCache.trim()) : 10_000);
+        // Exposé pour un refresh() après un redéploiement des ressources
+        getServletContext().setAttribute(StaticResources.class.getName(), staticResources);
+
+        String maxAge = getServletConfig().getInitParameter("static-max-age");
+        if (maxAge != null) {
+            staticMaxAge = Long.parseLong(maxAge.trim());
+        }
+
+        viewEngines = createViewEngines(getServletConfig().getInitParameter("view-engines"));
+        // Exposé pour l'enregistrement de moteurs par l'application
+        getServletContext().setAttribute(ViewEngines.class.getName(), viewEngines);
+
+        String cacheSize = getServletConfig().getInitParameter("cache-max-bytes");
+        responseCache = new ResponseCache(cacheSize != null
+                ? Long.parseLong(cacheSize.trim())
+                : ResponseCache.DEFAULT_MAX_BYTES);
+        // Exposé pour l'invalidation par l'application
+        getServletContext().setAttribute(ResponseCache.class.getName(), responseCache);
+
+        container = createContainer(getServletConfig().getInitParameter("container-modules"));
+        // Exposé pour les objets créés hors des contrôleurs
+        getServletContext().setAttribute(Container.class.getName(), container);
+
         try {
             String pkg = getServletConfig().getInitParameter("base-package");
-            routes = ScannerController.scan(pkg);
+            // Index généré à la compilation si présent, sinon scan du classpath
+            if (!"false".equals(getServletConfig().getInitParameter("route-index"))) {
+                routes = ScannerController.loadIndex(pkg, container, this::log);
+            }
+            if (routes == null) {
+                routes = ScannerController.scan(pkg, container);
+            }
+            InterceptorChain.resolve(routes, createInterceptors(getServletConfig().getInitParameter("interceptors")),
+                    container);
+            routeTree = new RouteTree(routes);
             logRoutes();
         } catch (Exception e) {
             throw new ServletException("Erreur scan routes", e);
         }
     }
 
+    @Override
+    public void destroy() {
+        if (asyncExecutor != null) {
+            asyncExecutor.shutdownNow();
+        }
+        if (container != null) {
+            try {
+                container.close();
+            } catch (RuntimeException e) {
+                log("Fermeture du conteneur", e);
+            }
+        }
+    }
+
+    /**
+     * Threads virtuels si la JVM les propose (Java 21+), sinon un pool borné
+     * (init-param async-threads) dont la file pleine renvoie un 503.
+     */
+    private synchronized ExecutorService getAsyncExecutor() {
+        if (asyncExecutor == null) {
+            try {
+                asyncExecutor = (ExecutorService) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                String threads = getServletConfig().getInitParameter("async-threads");
+                int size = threads != null ? Integer.parseInt(threads.trim())
+                        : Runtime.getRuntime().availableProcessors() * 8;
+                asyncExecutor = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+                        new ArrayBlockingQueue<>(size * 4), new ThreadPoolExecutor.AbortPolicy());
+            }
+        }
+        return asyncExecutor;
+    }
+
+    private JsonSerializer createJsonSerializer(String className) throws ServletException {
+        if (className == null || className.isBlank()) {
+            return new JsonConverter();
+        }
+        try {
+            Class<?> clazz = Class.forName(className.trim(), true, Thread.currentThread().getContextClassLoader());
+            return (JsonSerializer) clazz.getDeclaredConstructor().newInstance();
+        } catch (Exception e) {
+            throw new ServletException("Sérialiseur JSON invalide : " + className, e);
+        }
+    }
+
+    /**
+     * Moteur .tpl intégré, puis moteurs du ServiceLoader, puis ceux de
+     * l'init-param view-engines (noms de classes séparés par des virgules) :
+     * le dernier enregistré l'emporte pour une extension.
+     */
+    private ViewEngines createViewEngines(String classNames) throws ServletException {
+        ViewEngines engines = new ViewEngines();
+        engines.register(new TemplateEngine(getServletContext(),
+                "true".equals(getServletConfig().getInitParameter("template-dev-mode"))));
+        for (ViewEngine engine : ServiceLoader.load(ViewEngine.class, Thread.currentThread().getContextClassLoader())) {
+            engines.register(engine);
+        }
+        if (classNames != null) {
+            for (String className : classNames.split(",")) {
+                if (className.isBlank()) {
+                    continue;
+                }
+                try {
+                    Class<?> clazz = Class.forName(className.trim(), true, Thread.currentThread().getContextClassLoader());
+                    engines.register((ViewEngine) clazz.getDeclaredConstructor().newInstance());
+                } catch (Exception e) {
+                    throw new ServletException("Moteur de vue invalide : " + className, e);
+                }
+            }
+        }
+        return engines;
+    }
+
+    /**
+     * Conteneur avec le ServletContext et les modules de l'init-param
+     * container-modules (noms de classes Container.Module séparés par des
+     * virgules, qui déclarent pools, caches, implémentations...).
+     */
+    private Container createContainer(String moduleNames) throws ServletException {
+        Container c = new Container();
+        c.bindInstance(ServletContext.class, getServletContext());
+        if (moduleNames == null) {
+            return c;
+        }
+        for (String className : moduleNames.split(",")) {
+            if (className.isBlank()) {
+                continue;
+            }
+            try {
+                Class<?> clazz = Class.forName(className.trim(), true, Thread.currentThread().getContextClassLoader());
+                ((Container.Module) clazz.getDeclaredConstructor().newInstance()).configure(c);
+            } catch (Exception e) {
+                throw new ServletException("Module du conteneur invalide : " + className, e);
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Intercepteurs globaux de l'init-param interceptors (noms de classes
+     * séparés par des virgules, dans l'ordre d'exécution).
+     */
+    private List<Interceptor> createInterceptors(String classNames) throws ServletException {
+        List<Interceptor> interceptors = new ArrayList<>();
+        if (classNames == null) {
+            return interceptors;
+        }
+        for (String className : classNames.split(",")) {
+            if (className.isBlank()) {
+                continue;
+            }
+            try {
+                Class<?> clazz = Class.forName(className.trim(), true, Thread.currentThread().getContextClassLoader());
+                interceptors.add(InterceptorChain.create(container, clazz));
+            } catch (Exception e) {
+                throw new ServletException("Intercepteur invalide : " + className, e);
+            }
+        }
+        return interceptors;
+    }
+
+    public JsonSerializer getJsonSerializer() {
+        return jsonSerializer;
+    }
+
     private void logRoutes() {
         System.out.println("=== ROUTES DETECTEES ===");
         routes.forEach((url, list) -> {
@@ -55,503 +297,989 @@ public class UrlServlet extends HttpServlet {
         String path = req.getRequestURI().substring(req.getContextPath().length());
         String method = req.getMethod();
 
-        if (getServletContext().getResource(path) != null) {
-            getServletContext().getNamedDispatcher("default").forward(req, resp);
+        if (path.equals(metricsPath)) {
+            writeMetrics(req, resp);
+            return;
+        }
+
+        if (isStaticFile(path)) {
+            serveStatic(path, req, resp);
             return;
         }
 
-        ScannerController.RouteData route = findRoute(path, method, req);
+        RouteTree.Match match = routeTree.find(path, HttpMethod.of(method));
 
-        if (route == null) {
-            if (hasRouteForUrl(path)) {
-                sendError(resp, 405, "Méthode " + method + " non autorisée pour " + path);
+        if (match == null) {
+            if (staticResources.isDirectory(path)) {
+                serveStatic(path, req, resp);
                 return;
             }
             sendError(resp, 404, "Route inconnue : " + path);
             return;
         }
+        if (match.route == null) {
+            // En-tête Allow précalculé par l'arbre des routes
+            resp.setHeader("Allow", match.allow);
+            if (match.method == HttpMethod.OPTIONS) {
+                resp.setStatus(HttpServletResponse.SC_NO_CONTENT);
+                return;
+            }
+            sendError(resp, 405, "Méthode " + method + " non autorisée pour " + path);
+            return;
+        }
 
+        // Objets de portée requête accessibles aux intercepteurs et au cache
+        boolean requestScope = container.hasRequestScope();
+        HttpServletRequest previous = requestScope ? container.enterRequest(req) : null;
         try {
-            Object result = executeRoute(route, req, path);
-
-            if (route.returnsJson) {
-                resp.setContentType("application/json");
-                resp.setCharacterEncoding("UTF-8");
-
-                if (result instanceof ModelVue || result instanceof String) {
-                    Map<String, Object> jsonResult = new HashMap<>();
-                    if (result instanceof ModelVue) {
-                        ModelVue mv = (ModelVue) result;
-                        jsonResult.put("view", mv.getView());
-                        if (mv.getData() != null) {
-                            jsonResult.put("data", mv.getData());
-                        }
-                    } else {
-                        jsonResult.put("result", result);
-                    }
-                    resp.getWriter().print(toJson(jsonResult));
+            if (match.method == HttpMethod.HEAD) {
+                // Route GET exécutée normalement, corps compté mais non envoyé
+                HeadResponse head = new HeadResponse(resp);
+                serveRoute(match, path, req, head);
+                if (!req.isAsyncStarted()) {
+                    head.finish();
+                }
+                return;
+            }
+            serveRoute(match, path, req, resp);
+        } finally {
+            if (requestScope) {
+                container.exitRequest(previous);
+            }
+        }
+    }
+
+    private void serveRoute(RouteTree.Match match, String path, HttpServletRequest req, HttpServletResponse resp)
+            throws IOException {
+        ScannerController.RouteData route = match.route;
+
+        // Réponse en cache : rejouée sans passer par la cloison ni le contrôleur
+        String cacheKey = null;
+        Cached cached = route.cached;
+        if (cached != null && isSafeMethod(req)) {
+            cacheKey = ResponseCache.key(route.url, match.pathVars, cached.params(), req);
+            ResponseCache.Entry hit = responseCache.get(cacheKey);
+            if (hit != null) {
+                route.metrics.cacheHits.increment();
+                if (route.interceptors == null) {
+                    replayCached(hit, req, resp);
+                    return;
+                }
+                // Les intercepteurs (authentification...) s'appliquent aussi aux réponses en cache
+                try {
+                    route.interceptors.execute(route, req, resp, invocation -> {
+                        replayCached(hit, req, resp);
+                        return InterceptorChain.HANDLED;
+                    });
+                } catch (Exception e) {
+                    handleException(e, resp);
+                }
+                return;
+            }
+        }
+
+        // Cloison de la route : refus immédiat plutôt qu'un thread bloqué
+        ConcurrencyLimiter limiter = route.limiter;
+        if (limiter != null && !limiter.acquire()) {
+            route.metrics.rejected.increment();
+            resp.setHeader("Retry-After", String.valueOf(limiter.getRetryAfter()));
+            sendError(resp, 503, "Route saturée : " + path);
+            return;
+        }
+        long started = System.nanoTime();
+
+        // Un défaut de cache est traité sur le thread courant (capture du corps)
+        if ((route.async || asyncAll) && cacheKey == null) {
+            dispatchAsync(route, match.pathVars, req, resp, started);
+            return;
+        }
+
+        boolean completesLater = false;
+        boolean success = false;
+        try {
+            if (cacheKey != null) {
+                String key = cacheKey;
+                if (route.interceptors == null) {
+                    serveCached(route, key, match.pathVars, req, resp, null);
                 } else {
-                    resp.getWriter().print(convertToJson(result));
+                    route.interceptors.execute(route, req, resp, invocation -> {
+                        serveCached(route, key, match.pathVars, req, resp, invocation);
+                        return InterceptorChain.HANDLED;
+                    });
                 }
+                success = true;
+                return;
+            }
+
+            Object result = executeRoute(route, req, resp, match.pathVars);
+
+            if (result instanceof CompletionStage) {
+                // La réponse sera écrite quand le future sera terminé
+                AsyncCall call = new AsyncCall(req.startAsync(req, resp), route, req, resp, started);
+                completesLater = true;
+                call.await((CompletionStage<?>) result);
             } else {
-                handleResult(result, req, resp);
+                writeResult(route, result, req, resp, null);
+                success = true;
             }
 
         } catch (Exception e) {
-            e.printStackTrace();
-            sendError(resp, 500, "Erreur interne: " + e.getMessage());
+            handleException(e, resp);
         } finally {
-            cleanupUploadedFiles(req);
+            if (!completesLater) {
+                cleanupUploadedFiles(req);
+                complete(route, started, success);
+            }
         }
     }
 
-    // Nettoyage des fichiers uploadés
-    private void cleanupUploadedFiles(HttpServletRequest req) {
-        @SuppressWarnings("unchecked")
-        List<UploadedFile> filesToCleanup = (List<UploadedFile>) req.getAttribute("filesToCleanup");
+    /**
+     * Défaut de cache : un seul appelant exécute la route et capture sa réponse,
+     * les appels simultanés pour la même clé la rejouent.
+     */
+    private void serveCached(ScannerController.RouteData route, String key, String[] pathVars,
+            HttpServletRequest req, HttpServletResponse resp, InterceptorChain.Invocation invocation)
+            throws Exception {
+        ResponseCache.Capture capture = new ResponseCache.Capture(resp);
+        // Attente d'un chargement simultané bornée comme une route asynchrone
+        long timeout = route.asyncTimeout >= 0 ? route.asyncTimeout : asyncTimeout;
+        ResponseCache.Entry entry = responseCache.getOrLoad(key, () -> {
+            Object result = awaitResult(route, invokeRoute(route, req, capture, pathVars, invocation));
+            writeResult(route, result, req, capture, null);
+            return capture.toEntry(route.cached.ttl());
+        }, timeout);
+
+        if (capture.isUsed()) {
+            writeCompressed(req, resp, capture::flushTo);
+        } else if (entry != null) {
+            route.metrics.cacheHits.increment();
+            writeCompressed(req, resp, entry::writeTo);
+        } else {
+            // Chargement partagé sans résultat cachable ou trop long : exécuter soi-même
+            Object result = awaitResult(route, invokeRoute(route, req, resp, pathVars, invocation));
+            writeResult(route, result, req, resp, null);
+        }
+    }
 
-        if (filesToCleanup != null) {
-            for (UploadedFile file : filesToCleanup) {
-                file.cleanup();
+    private void replayCached(ResponseCache.Entry hit, HttpServletRequest req, HttpServletResponse resp)
+            throws IOException {
+        String etag = hit.getHeader("ETag");
+        if (etag != null && etagMatches(req.getHeader("If-None-Match"), etag)) {
+            resp.setHeader("ETag", etag);
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        } else {
+            writeCompressed(req, resp, hit::writeTo);
+        }
+    }
+
+    private interface BodyWriter {
+        void writeTo(HttpServletResponse resp) throws IOException;
+    }
+
+    // Corps déjà produit (cache) : le Deflater est rendu même si l'envoi échoue
+    private void writeCompressed(HttpServletRequest req, HttpServletResponse resp, BodyWriter body)
+            throws IOException {
+        HttpServletResponse out = compress(req, resp);
+        boolean written = false;
+        try {
+            body.writeTo(out);
+            finishCompression(out);
+            written = true;
+        } finally {
+            if (!written && out instanceof CompressingResponse) {
+                ((CompressingResponse) out).abort();
             }
         }
     }
 
-    // Stocker un fichier pour nettoyage
-    private void storeForCleanup(HttpServletRequest req, UploadedFile uploadedFile) {
-        @SuppressWarnings("unchecked")
-        List<UploadedFile> filesToCleanup = (List<UploadedFile>) req.getAttribute("filesToCleanup");
-        if (filesToCleanup == null) {
-            filesToCleanup = new ArrayList<>();
-            req.setAttribute("filesToCleanup", filesToCleanup);
+    // Un CompletionStage est attendu pour que sa réponse puisse être capturée
+    private Object awaitResult(ScannerController.RouteData route, Object result) throws Exception {
+        if (!(result instanceof CompletionStage)) {
+            return result;
+        }
+        long timeout = route.asyncTimeout >= 0 ? route.asyncTimeout : asyncTimeout;
+        CompletableFuture<?> future = ((CompletionStage<?>) result).toCompletableFuture();
+        try {
+            return future.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Même réponse que le chemin asynchrone (503), traitement annulé
+            future.cancel(true);
+            route.metrics.timeouts.increment();
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
         }
-        filesToCleanup.add(uploadedFile);
     }
 
-    private String convertToJson(Object obj) {
-        if (obj instanceof Map) {
-            return toJson((Map<?, ?>) obj);
-        } else if (obj instanceof Iterable) {
-            return toJsonArray(obj);
-        } else if (obj instanceof Object[]) {
-            return toJsonArray(obj);
-        } else {
-            return toJsonValue(obj);
+    // Fin du traitement d'une route : métriques et libération de la cloison
+    private void complete(ScannerController.RouteData route, long started, boolean success) {
+        long elapsed = System.nanoTime() - started;
+        route.metrics.complete(elapsed, success);
+        if (route.limiter != null) {
+            route.limiter.release(elapsed, success);
         }
     }
 
-    private boolean hasRouteForUrl(String path) {
-        if (routes.containsKey(path)) {
-            return true;
+    private boolean writeResult(ScannerController.RouteData route, Object result,
+            HttpServletRequest req, HttpServletResponse resp, AsyncContext async)
+            throws Exception {
+        if (result == NOT_MODIFIED) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+        if (result == InterceptorChain.HANDLED) {
+            // Réponse déjà écrite par un intercepteur
+            return false;
         }
 
-        for (String pattern : routes.keySet()) {
-            if (pattern.contains("{") && matchPattern(pattern, path)) {
-                return true;
+        long started = System.nanoTime();
+        // Le corps gardé pour le cache reste en clair : il est compressé à chaque envoi
+        HttpServletResponse out = resp instanceof ResponseCache.Capture ? resp : compress(req, resp);
+        boolean written = false;
+        try {
+            boolean dispatched = writeBody(route, result, req, out, async);
+            finishCompression(out);
+            written = true;
+            return dispatched;
+        } finally {
+            if (!written && out instanceof CompressingResponse) {
+                ((CompressingResponse) out).abort();
             }
+            route.metrics.write.recordNanos(System.nanoTime() - started);
         }
+    }
 
+    private boolean writeBody(ScannerController.RouteData route, Object result,
+            HttpServletRequest req, HttpServletResponse resp, AsyncContext async)
+            throws Exception {
+        // ETag calculé sur le corps (sans jeton de version)
+        boolean tagBody = route.etag != null && route.versionMethod == null && isSafeMethod(req);
+
+        if (route.returnsJson && isJsonStream(result)) {
+            streamJson(result, resp);
+        } else if (route.returnsJson && tagBody) {
+            resp.setContentType("application/json");
+            resp.setCharacterEncoding("UTF-8");
+            writeTagged(jsonSerializer.serialize(toJsonPayload(result)).getBytes(StandardCharsets.UTF_8),
+                    req, resp);
+        } else if (route.returnsJson) {
+            writeJson(toJsonPayload(result), resp);
+        } else if (tagBody && result instanceof String && !((String) result).startsWith("redirect:")) {
+            resp.setContentType("text/html");
+            writeTagged(((String) result).getBytes(resp.getCharacterEncoding()), req, resp);
+        } else {
+            return handleResult(result, req, resp, async);
+        }
         return false;
     }
 
-    private String getAllowedMethods(String path) {
-        List<String> methods = new ArrayList<>();
+    private void handleException(Throwable e, HttpServletResponse resp) throws IOException {
+        ConversionException invalid = findCause(e, ConversionException.class);
+        if (invalid != null && !resp.isCommitted()) {
+            resp.reset();
+            sendBadRequest(resp, invalid);
+            return;
+        }
+        JsonSyntaxException syntax = findCause(e, JsonSyntaxException.class);
+        if (syntax != null && !resp.isCommitted()) {
+            resp.reset();
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("status", 400);
+            body.put("error", syntax.getMessage());
+            body.put("position", syntax.getPosition());
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            writeJson(body, resp);
+            return;
+        }
+        MultipartLimitException limit = findLimitException(e);
+        if (limit != null && !resp.isCommitted()) {
+            resp.reset();
+            sendError(resp, 413, limit.getMessage());
+            return;
+        }
+        if (findCause(e, TimeoutException.class) != null && !resp.isCommitted()) {
+            resp.reset();
+            sendError(resp, 503, "Délai de traitement dépassé");
+            return;
+        }
+        log("Erreur lors du traitement de la requête", e);
+        if (resp.isCommitted()) {
+            // Réponse déjà partiellement envoyée (flux JSON) : rien à ajouter
+            return;
+        }
+        resp.reset();
+        sendError(resp, 500, "Erreur interne: " + e.getMessage());
+    }
 
-        if (routes.containsKey(path)) {
-            for (ScannerController.RouteData route : routes.get(path)) {
-                methods.add(route.httpMethod);
-            }
-        } else {
-            for (String pattern : routes.keySet()) {
-                if (pattern.contains("{") && matchPattern(pattern, path)) {
-                    for (ScannerController.RouteData route : routes.get(pattern)) {
-                        methods.add(route.httpMethod);
+    // ==================== ASYNCHRONE ====================
+
+    private void dispatchAsync(ScannerController.RouteData route, String[] pathVars,
+            HttpServletRequest req, HttpServletResponse resp, long started) throws IOException {
+        AsyncCall call = new AsyncCall(req.startAsync(req, resp), route, req, resp, started);
+        try {
+            call.task = getAsyncExecutor().submit(() -> {
+                try {
+                    Object result = executeRoute(route, req, resp, pathVars);
+                    if (result instanceof CompletionStage) {
+                        call.await((CompletionStage<?>) result);
+                    } else {
+                        call.finish(result, null);
                     }
-                    break;
+                } catch (Throwable t) {
+                    call.finish(null, t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            call.reject();
+        }
+    }
+
+    /**
+     * Une requête en cours de traitement asynchrone. La réponse est écrite une
+     * seule fois : par le résultat, l'erreur, le délai dépassé ou l'annulation.
+     */
+    private class AsyncCall implements AsyncListener {
+        final AsyncContext context;
+        final ScannerController.RouteData route;
+        final HttpServletRequest req;
+        final HttpServletResponse resp;
+        final long started;
+        // Requête HEAD : Content-Length posé avant de terminer
+        final HeadResponse head;
+        final AtomicBoolean done = new AtomicBoolean(false);
+        volatile Future<?> task;
+        volatile CompletableFuture<?> pending;
+
+        AsyncCall(AsyncContext context, ScannerController.RouteData route,
+                HttpServletRequest req, HttpServletResponse resp, long started) {
+            this.context = context;
+            this.route = route;
+            this.req = req;
+            this.resp = resp;
+            this.started = started;
+            this.head = headResponse(resp);
+            context.setTimeout(route.asyncTimeout >= 0 ? route.asyncTimeout : asyncTimeout);
+            context.addListener(this);
+        }
+
+        void await(CompletionStage<?> stage) {
+            CompletableFuture<?> future = stage.toCompletableFuture();
+            pending = future;
+            future.whenComplete((result, error) -> finish(result, error));
+        }
+
+        void finish(Object result, Throwable error) {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            boolean dispatched = false;
+            boolean success = false;
+            try {
+                if (error instanceof CompletionException && error.getCause() != null) {
+                    error = error.getCause();
+                }
+                if (error != null) {
+                    handleException(error, resp);
+                } else {
+                    dispatched = writeResult(route, result, req, resp, context);
+                    success = true;
+                }
+            } catch (Throwable t) {
+                try {
+                    handleException(t, resp);
+                } catch (IOException ignored) {
+                }
+            } finally {
+                cleanupUploadedFiles(req);
+                complete(route, started, success);
+                if (!dispatched) {
+                    completeContext();
                 }
             }
         }
 
-        return String.join(", ", methods);
-    }
+        void reject() throws IOException {
+            if (done.compareAndSet(false, true)) {
+                route.metrics.rejected.increment();
+                resp.setHeader("Retry-After", "1");
+                sendError(resp, 503, "Serveur surchargé");
+                cleanupUploadedFiles(req);
+                complete(route, started, false);
+                completeContext();
+            }
+        }
 
-    private ScannerController.RouteData findRoute(String path, String method, HttpServletRequest req) {
-        if (routes.containsKey(path)) {
-            ScannerController.RouteData route = routes.get(path).stream()
-                    .filter(r -> r.httpMethod.equalsIgnoreCase(method))
-                    .findFirst()
-                    .orElse(null);
-            if (route != null) {
-                prepareRoute(route, req);
-                return route;
+        private void completeContext() {
+            if (head != null) {
+                head.finish();
             }
+            context.complete();
         }
 
-        for (String pattern : routes.keySet()) {
-            if (pattern.contains("{") && matchPattern(pattern, path)) {
-                for (ScannerController.RouteData route : routes.get(pattern)) {
-                    if (route.httpMethod.equalsIgnoreCase(method)) {
-                        extractAndCachePathVars(pattern, path);
-                        prepareRoute(route, req);
-                        return route;
+        // Délai dépassé ou client parti : annuler le traitement en cours
+        private void cancel(int status, String message) {
+            // Rien à annuler si le résultat a déjà été pris en charge
+            if (done.compareAndSet(false, true)) {
+                Future<?> t = task;
+                if (t != null) {
+                    t.cancel(true);
+                }
+                CompletableFuture<?> p = pending;
+                if (p != null) {
+                    p.cancel(true);
+                }
+                try {
+                    if (status > 0 && !resp.isCommitted()) {
+                        resp.reset();
+                        sendError(resp, status, message);
                     }
+                } catch (IOException ignored) {
+                } finally {
+                    cleanupUploadedFiles(req);
+                    complete(route, started, false);
+                    completeContext();
                 }
             }
         }
 
-        return null;
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            route.metrics.timeouts.increment();
+            cancel(503, "Délai de traitement dépassé");
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            cancel(0, null);
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
     }
 
-    private void prepareRoute(ScannerController.RouteData route, HttpServletRequest req) {
-        // Stocker les paramètres normaux
-        Map<String, String[]> params = new HashMap<>();
-        Enumeration<String> paramNames = req.getParameterNames();
-        while (paramNames.hasMoreElements()) {
-            String name = paramNames.nextElement();
-            params.put(name, req.getParameterValues(name));
+    // HeadResponse éventuellement enveloppée (cache, intercepteurs)
+    private static HeadResponse headResponse(ServletResponse resp) {
+        while (resp instanceof ServletResponseWrapper) {
+            if (resp instanceof HeadResponse) {
+                return (HeadResponse) resp;
+            }
+            resp = ((ServletResponseWrapper) resp).getResponse();
         }
-        req.setAttribute("requestParams", params);
+        return null;
     }
 
-    private boolean matchPattern(String pattern, String path) {
-        String[] pParts = pattern.split("/");
-        String[] rParts = path.split("/");
+    // Nettoyage des fichiers uploadés
+    private void cleanupUploadedFiles(HttpServletRequest req) {
+        @SuppressWarnings("unchecked")
+        List<UploadedFile> filesToCleanup = (List<UploadedFile>) req.getAttribute("filesToCleanup");
+
+        if (filesToCleanup != null) {
+            for (UploadedFile file : filesToCleanup) {
+                file.cleanup();
+            }
+        }
+    }
 
-        if (pParts.length != rParts.length)
-            return false;
+    // Stocker un fichier pour nettoyage
+    private void storeForCleanup(HttpServletRequest req, UploadedFile uploadedFile) {
+        @SuppressWarnings("unchecked")
+        List<UploadedFile> filesToCleanup = (List<UploadedFile>) req.getAttribute("filesToCleanup");
+        if (filesToCleanup == null) {
+            filesToCleanup = new ArrayList<>();
+            req.setAttribute("filesToCleanup", filesToCleanup);
+        }
+        filesToCleanup.add(uploadedFile);
+    }
 
-        for (int i = 0; i < pParts.length; i++) {
-            if (!pParts[i].startsWith("{") && !pParts[i].equals(rParts[i])) {
-                return false;
+    // Les vues et les chaînes sont enveloppées pour rester du JSON valide
+    private Object toJsonPayload(Object result) {
+        if (result instanceof ModelVue) {
+            ModelVue mv = (ModelVue) result;
+            Map<String, Object> jsonResult = new LinkedHashMap<>();
+            jsonResult.put("view", mv.getView());
+            if (mv.getData() != null) {
+                jsonResult.put("data", mv.getData());
             }
+            return jsonResult;
+        }
+        if (result instanceof String) {
+            return Collections.singletonMap("result", result);
         }
+        return result;
+    }
 
-        return true;
+    private void writeJson(Object value, HttpServletResponse resp) throws IOException {
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+        jsonSerializer.serialize(value, resp.getWriter());
     }
 
-    private void extractAndCachePathVars(String pattern, String path) {
-        String[] pParts = pattern.split("/");
-        String[] rParts = path.split("/");
-        Map<String, String> vars = new HashMap<>();
+    private boolean isJsonStream(Object result) {
+        return result instanceof JsonStream || result instanceof BaseStream || result instanceof Iterator;
+    }
 
-        for (int i = 0; i < pParts.length; i++) {
-            if (pParts[i].startsWith("{")) {
-                String name = pParts[i].substring(1, pParts[i].length() - 1);
-                vars.put(name, rParts[i]);
+    /**
+     * Écrit un tableau JSON élément par élément, avec un flush régulier :
+     * la mémoire reste constante et le premier octet part au plus tôt.
+     */
+    private void streamJson(Object result, HttpServletResponse resp) throws Exception {
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+        PrintWriter out = resp.getWriter();
+
+        JsonStream.Sink sink = new JsonStream.Sink() {
+            private int count = 0;
+
+            @Override
+            public void add(Object element) throws IOException {
+                if (count > 0) {
+                    out.write(',');
+                }
+                jsonSerializer.serialize(element, out);
+                if (++count % STREAM_FLUSH_EVERY == 0) {
+                    out.flush();
+                    if (out.checkError()) {
+                        throw new IOException("Client déconnecté");
+                    }
+                }
+            }
+        };
+
+        out.write('[');
+        if (result instanceof JsonStream) {
+            ((JsonStream) result).writeTo(sink);
+        } else if (result instanceof BaseStream) {
+            try (BaseStream<?, ?> stream = (BaseStream<?, ?>) result) {
+                Iterator<?> it = stream.iterator();
+                while (it.hasNext()) {
+                    sink.add(it.next());
+                }
+            }
+        } else {
+            Iterator<?> it = (Iterator<?>) result;
+            while (it.hasNext()) {
+                sink.add(it.next());
             }
         }
-
-        pathVarsCache.put(path, vars);
+        out.write(']');
+        out.flush();
     }
 
     private Object executeRoute(ScannerController.RouteData route,
             HttpServletRequest req,
-            String path) throws Exception {
+            HttpServletResponse resp,
+            String[] pathVars) throws Exception {
 
-        Object[] args = prepareArgs(route, req, path);
-        return route.method.invoke(route.controller, args);
+        // Objets de portée requête : la requête est associée au thread (worker asynchrone compris)
+        boolean requestScope = container.hasRequestScope();
+        HttpServletRequest previous = requestScope ? container.enterRequest(req) : null;
+        try {
+            InterceptorChain chain = route.interceptors;
+            if (chain != null) {
+                return chain.execute(route, req, resp, invocation -> invokeRoute(route, req, resp, pathVars, invocation));
+            }
+            return invokeRoute(route, req, resp, pathVars, null);
+        } finally {
+            if (requestScope) {
+                container.exitRequest(previous);
+            }
+        }
     }
 
-    private Object[] prepareArgs(ScannerController.RouteData route,
+    private Object invokeRoute(ScannerController.RouteData route,
             HttpServletRequest req,
-            String path) throws IOException, ServletException {
-        Parameter[] params = route.method.getParameters();
-        Object[] args = new Object[params.length];
+            HttpServletResponse resp,
+            String[] pathVars,
+            InterceptorChain.Invocation invocation) throws Exception {
+
+        long started = System.nanoTime();
+        Object[] args = prepareArgs(route, req, pathVars);
+        long bound = System.nanoTime();
+        route.metrics.bind.recordNanos(bound - started);
+
+        // Jeton de version fourni par le contrôleur : 304 sans exécuter la route
+        if (route.versionMethod != null && isSafeMethod(req)) {
+            Object version = route.version(args);
+            if (version != null && applyVersion(version, req, resp)) {
+                return NOT_MODIFIED;
+            }
+        }
 
-        Map<String, String> pathVars = pathVarsCache.get(path);
-        @SuppressWarnings("unchecked")
-        Map<String, String[]> reqParams = (Map<String, String[]>) req.getAttribute("requestParams");
-        if (reqParams == null) {
-            reqParams = new HashMap<>();
+        try {
+            return invocation != null ? invocation.start(args) : route.invoke(args);
+        } finally {
+            route.metrics.invoke.recordNanos(System.nanoTime() - bound);
         }
+    }
 
-        // Si la route a des paramètres upload, on doit parser multipart
-        if (route.hasUploadParam && isMultipartRequest(req)) {
-            parseMultipartRequest(req);
+    // ==================== COMPRESSION ====================
+
+    /**
+     * Réponse compressée si le client l'accepte (à terminer par
+     * finishCompression), sinon la réponse elle-même. HEAD est négocié comme
+     * GET : ses en-têtes et sa longueur sont ceux du corps compressé.
+     */
+    private HttpServletResponse compress(HttpServletRequest req, HttpServletResponse resp) {
+        if (deflaterPool == null) {
+            return resp;
         }
+        String encoding = CompressingResponse.negotiate(req.getHeader("Accept-Encoding"));
+        return encoding != null
+                ? new CompressingResponse(resp, encoding, compressionThreshold, deflaterPool)
+                : resp;
+    }
 
-        // Récupérer les fichiers uploadés
-        @SuppressWarnings("unchecked")
-        Map<String, UploadedFile> uploadedFiles = (Map<String, UploadedFile>) req.getAttribute("uploadedFiles");
-        if (uploadedFiles == null) {
-            uploadedFiles = new HashMap<>();
+    private static void finishCompression(HttpServletResponse resp) throws IOException {
+        if (resp instanceof CompressingResponse) {
+            ((CompressingResponse) resp).finish();
         }
+    }
 
-        Map<String, Object> allValues = collectAllValues(route, pathVars, reqParams, uploadedFiles, req);
+    /**
+     * Recherche en mémoire dans l'index ; sans index, les chemins sous un
+     * préfixe de route ne touchent jamais au système de fichiers.
+     */
+    private boolean isStaticFile(String path) {
+        if (staticResources.isIndexed()) {
+            return staticResources.isFile(path);
+        }
+        return !routeTree.hasStaticPrefix(path) && staticResources.exists(path);
+    }
 
-        if (route.hasMapParam) {
-            for (int i = 0; i < params.length; i++) {
-                Parameter param = params[i];
+    /**
+     * Ressource statique : cache long pour les fichiers à empreinte
+     * (app.3f2a9c1d.js), version .gz voisine si elle existe et que le client
+     * accepte gzip, sinon le servlet par défaut du conteneur.
+     */
+    private void serveStatic(String path, HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        if (FINGERPRINTED.matcher(path).matches()) {
+            resp.setHeader("Cache-Control", "public, max-age=" + staticMaxAge + ", immutable");
+        }
 
-                if (param.getType().equals(Map.class)) {
-                    args[i] = allValues;
-                } else {
-                    String name = getParamName(param);
-                    args[i] = getParameterValue(name, param.getType(), allValues, req);
-                }
+        URL gz = deflaterPool != null && !path.endsWith(".gz")
+                && "gzip".equals(CompressingResponse.negotiate(req.getHeader("Accept-Encoding")))
+                && staticResources.exists(path + ".gz")
+                ? getServletContext().getResource(path + ".gz")
+                : null;
+        if (gz == null) {
+            getServletContext().getNamedDispatcher("default").forward(req, resp);
+            return;
+        }
+
+        URLConnection connection = gz.openConnection();
+        long lastModified = connection.getLastModified();
+        resp.addHeader("Vary", "Accept-Encoding");
+        if (lastModified > 0) {
+            resp.setDateHeader("Last-Modified", lastModified);
+            long since = -1;
+            try {
+                since = req.getDateHeader("If-Modified-Since");
+            } catch (IllegalArgumentException ignored) {
             }
-        } else {
-            for (int i = 0; i < params.length; i++) {
-                Parameter param = params[i];
-                String name = getParamName(param);
-                Class<?> type = param.getType();
+            if (since >= 0 && lastModified / 1000 <= since / 1000) {
+                resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
 
-                args[i] = getParameterValue(name, type, allValues, req, uploadedFiles);
+        String mime = getServletContext().getMimeType(path);
+        resp.setContentType(mime != null ? mime : "application/octet-stream");
+        resp.setHeader("Content-Encoding", "gzip");
+        long length = connection.getContentLengthLong();
+        if (length >= 0) {
+            resp.setContentLengthLong(length);
+        }
+        try (InputStream in = connection.getInputStream()) {
+            if (!"HEAD".equals(req.getMethod())) {
+                in.transferTo(resp.getOutputStream());
             }
         }
+    }
 
-        return args;
+    // ==================== RÉPONSES CONDITIONNELLES ====================
+
+    private static boolean isSafeMethod(HttpServletRequest req) {
+        return "GET".equals(req.getMethod()) || "HEAD".equals(req.getMethod());
     }
 
-    // Vérifier si c'est une requête multipart
-    private boolean isMultipartRequest(HttpServletRequest req) {
-        String contentType = req.getContentType();
-        return contentType != null &&
-                contentType.toLowerCase().startsWith("multipart/form-data");
+    /**
+     * Écrit le corps avec un ETag (CRC32C et longueur), ou 304 si le client
+     * possède déjà ce contenu.
+     */
+    private void writeTagged(byte[] body, HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        CRC32C crc = new CRC32C();
+        crc.update(body, 0, body.length);
+        String etag = "\"" + Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(body.length) + "\"";
+        resp.setHeader("ETag", etag);
+
+        if (etagMatches(req.getHeader("If-None-Match"), etag)) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        resp.setContentLength(body.length);
+        resp.getOutputStream().write(body);
     }
 
-    // Parser une requête multipart - CORRIGÉ les exceptions
-    private void parseMultipartRequest(HttpServletRequest req) {
-        Map<String, String[]> textParams = new HashMap<>();
-        Map<String, UploadedFile> uploadedFiles = new HashMap<>();
+    /**
+     * Pose ETag (et Last-Modified pour un Instant ou une Date) depuis le jeton
+     * de version. Retourne true si le client a déjà cette version.
+     */
+    private boolean applyVersion(Object version, HttpServletRequest req, HttpServletResponse resp) {
+        long lastModified = -1;
+        if (version instanceof Instant) {
+            lastModified = ((Instant) version).toEpochMilli();
+        } else if (version instanceof Date) {
+            lastModified = ((Date) version).getTime();
+        }
 
-        try {
-            // Utiliser try-with-resources pour lire l'input stream
-            Collection<Part> parts = req.getParts();
-
-            for (Part part : parts) {
-                String name = part.getName();
-
-                if (part.getSubmittedFileName() != null && part.getSize() > 0) {
-                    // C'est un fichier
-                    UploadedFile uploadedFile = new UploadedFile(
-                            part.getSubmittedFileName(),
-                            part.getContentType(),
-                            part.getSize(),
-                            part.getInputStream());
-                    uploadedFiles.put(name, uploadedFile);
-                    storeForCleanup(req, uploadedFile);
-                } else {
-                    // C'est un paramètre texte - CORRIGÉ sans Collectors
-                    StringBuilder valueBuilder = new StringBuilder();
-                    try (BufferedReader reader = new BufferedReader(
-                            new InputStreamReader(part.getInputStream()))) {
-
-                        String line;
-                        while ((line = reader.readLine()) != null) {
-                            if (valueBuilder.length() > 0) {
-                                valueBuilder.append("\n");
-                            }
-                            valueBuilder.append(line);
-                        }
-                    }
-                    String value = valueBuilder.toString();
-
-                    // Gérer les paramètres multiples avec même nom
-                    if (textParams.containsKey(name)) {
-                        String[] existing = textParams.get(name);
-                        String[] newArray = new String[existing.length + 1];
-                        System.arraycopy(existing, 0, newArray, 0, existing.length);
-                        newArray[existing.length] = value;
-                        textParams.put(name, newArray);
-                    } else {
-                        textParams.put(name, new String[] { value });
-                    }
-                }
-            }
+        String token = lastModified >= 0 ? Long.toString(lastModified) : version.toString();
+        CRC32C crc = new CRC32C();
+        crc.update(token.getBytes(StandardCharsets.UTF_8));
+        String etag = "\"v" + Long.toHexString(crc.getValue()) + "\"";
+        resp.setHeader("ETag", etag);
+        if (lastModified >= 0) {
+            resp.setDateHeader("Last-Modified", lastModified);
+        }
 
-            // Fusionner avec les paramètres existants
-            @SuppressWarnings("unchecked")
-            Map<String, String[]> existingParams = (Map<String, String[]>) req.getAttribute("requestParams");
-            if (existingParams != null) {
-                // Fusion manuelle sans Stream API
-                for (Map.Entry<String, String[]> entry : existingParams.entrySet()) {
-                    textParams.put(entry.getKey(), entry.getValue());
-                }
+        String ifNoneMatch = req.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return etagMatches(ifNoneMatch, etag);
+        }
+        if (lastModified >= 0) {
+            try {
+                long since = req.getDateHeader("If-Modified-Since");
+                // Les dates HTTP sont à la seconde
+                return since >= 0 && lastModified / 1000 <= since / 1000;
+            } catch (IllegalArgumentException e) {
+                return false;
             }
+        }
+        return false;
+    }
 
-            req.setAttribute("requestParams", textParams);
-            req.setAttribute("uploadedFiles", uploadedFiles);
-
-        } catch (Exception e) {
-            // Si ce n'est pas multipart ou erreur, on ignore
-            System.err.println("Erreur lors du parsing multipart: " + e.getMessage());
+    // Comparaison faible d'If-None-Match (W/ ignoré), "*" accepte tout
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String c = candidate.trim();
+            if (c.startsWith("W/")) {
+                c = c.substring(2);
+            }
+            if (c.equals("*") || c.equals(etag)) {
+                return true;
+            }
         }
+        return false;
     }
 
-    private Object getParameterValue(String name, Class<?> type,
-            Map<String, Object> allValues,
-            HttpServletRequest req,
-            Map<String, UploadedFile> uploadedFiles) {
+    // ==================== MÉTRIQUES ====================
 
-        // 1. Vérifier les fichiers uploadés
-        if (type.getName().equals("com.example.classe.UploadedFile")) {
-            return uploadedFiles.get(name);
-        }
+    /**
+     * Texte Prometheus par défaut, JSON avec ?format=json ou Accept: application/json.
+     */
+    private void writeMetrics(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        List<ScannerController.RouteData> all = new ArrayList<>();
+        routes.values().forEach(all::addAll);
 
-        // 2. Vérifier List<UploadedFile>
-        if (type.equals(List.class)) {
-            // Chercher tous les fichiers avec ce nom (pour les tableaux)
-            List<UploadedFile> files = new ArrayList<>();
-            for (Map.Entry<String, UploadedFile> entry : uploadedFiles.entrySet()) {
-                if (entry.getKey().startsWith(name + "[") || entry.getKey().equals(name)) {
-                    files.add(entry.getValue());
-                }
-            }
-            return files;
+        String accept = req.getHeader("Accept");
+        if ("json".equals(req.getParameter("format"))
+                || (accept != null && accept.contains("application/json"))) {
+            writeJson(RouteMetrics.toMap(all), resp);
+            return;
         }
+        resp.setContentType("text/plain; version=0.0.4");
+        resp.setCharacterEncoding("UTF-8");
+        RouteMetrics.writePrometheus(all, resp.getWriter());
+    }
 
-        // 3. Valeur déjà convertie
-        if (allValues.containsKey(name)) {
-            Object value = allValues.get(name);
-            if (value != null && type.isInstance(value)) {
-                return value;
+    private Object[] prepareArgs(ScannerController.RouteData route,
+            HttpServletRequest req,
+            String[] pathVars) throws Exception {
+        RequestContext ctx = new RequestContext(req, pathVars);
+
+        if (route.multipart != null && isMultipartRequest(req)) {
+            // Rejeter avant toute lecture si la taille annoncée dépasse la limite
+            long maxTotal = route.multipart.maxTotalSize();
+            if (maxTotal >= 0 && req.getContentLengthLong() > maxTotal) {
+                throw new MultipartLimitException("Requête trop volumineuse (max " + maxTotal + " octets)");
             }
         }
 
-        // 4. Attribut de requête
-        Object attrValue = req.getAttribute(name);
-        if (attrValue != null && type.isInstance(attrValue)) {
-            return type.cast(attrValue);
+        // Si la route a des paramètres upload, on doit parser multipart
+        if (route.hasUploadParam && isMultipartRequest(req)) {
+            parseMultipartRequest(req, ctx, route.multipart);
         }
 
-        // 5. Valeur par défaut
-        return getDefaultValue(type);
+        ArgumentBinder[] binders = route.binders;
+        Object[] args = new Object[binders.length];
+        for (int i = 0; i < binders.length; i++) {
+            args[i] = binders[i].bind(ctx);
+        }
+        return args;
     }
 
-    private Object getParameterValue(String name, Class<?> type,
-            Map<String, Object> allValues,
-            HttpServletRequest req) {
-        return getParameterValue(name, type, allValues, req, new HashMap<>());
+    // Vérifier si c'est une requête multipart
+    private boolean isMultipartRequest(HttpServletRequest req) {
+        String contentType = req.getContentType();
+        return contentType != null &&
+                contentType.toLowerCase().startsWith("multipart/form-data");
     }
 
-    private Map<String, Object> collectAllValues(ScannerController.RouteData route,
-            Map<String, String> pathVars,
-            Map<String, String[]> reqParams,
-            Map<String, UploadedFile> uploadedFiles,
-            HttpServletRequest req) {
-        Map<String, Object> allValues = new HashMap<>();
+    // Parser une requête multipart - CORRIGÉ les exceptions
+    private void parseMultipartRequest(HttpServletRequest req, RequestContext ctx, Multipart limits)
+            throws MultipartLimitException {
+        Map<String, String[]> textParams = new HashMap<>();
+        Map<String, UploadedFile> uploadedFiles = new HashMap<>();
+        String encoding = req.getCharacterEncoding();
+        Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
 
-        // 1. Variables de chemin
-        if (pathVars != null) {
-            for (Map.Entry<String, String> entry : pathVars.entrySet()) {
-                String key = entry.getKey();
-                String value = entry.getValue();
-                Class<?> expectedType = route.paramTypes.getOrDefault(key, String.class);
-                allValues.put(key, convertValue(value, expectedType));
+        try {
+            if (limits != null) {
+                // Limites déclarées : lecture en flux, vérifiées au fil de la
+                // lecture (corps chunked ou plus long qu'annoncé compris)
+                readLimitedParts(req, charset, limits, textParams, uploadedFiles);
+            } else {
+                readParts(req, charset, textParams, uploadedFiles);
             }
-        }
 
-        // 2. Paramètres de requête texte
-        if (reqParams != null) {
-            for (Map.Entry<String, String[]> entry : reqParams.entrySet()) {
-                String key = entry.getKey();
-                String[] values = entry.getValue();
+            ctx.setMultipart(textParams, uploadedFiles);
 
-                if (values != null && values.length > 0) {
-                    Class<?> expectedType = route.paramTypes.getOrDefault(key, String.class);
+        } catch (MultipartLimitException e) {
+            throw e;
+        } catch (Exception e) {
+            // Si ce n'est pas multipart ou erreur, on ignore
+            log("Erreur lors du parsing multipart: " + e.getMessage(), e);
+        }
+    }
 
-                    if (isComplexObject(expectedType)) {
-                        Object obj = createObjectFromParams(expectedType, reqParams);
-                        allValues.put(key, obj);
-                    } else if (values.length == 1) {
-                        allValues.put(key, convertValue(values[0], expectedType));
-                    } else {
-                        // Convertir le tableau sans Stream API
-                        Object[] arrayValues = new Object[values.length];
-                        for (int i = 0; i < values.length; i++) {
-                            arrayValues[i] = convertValue(values[i], String.class);
-                        }
-                        allValues.put(key, arrayValues);
-                    }
+    private void readParts(HttpServletRequest req, Charset charset,
+            Map<String, String[]> textParams, Map<String, UploadedFile> uploadedFiles) throws Exception {
+        for (Part part : req.getParts()) {
+            String name = part.getName();
+
+            if (part.getSubmittedFileName() != null && part.getSize() > 0) {
+                // C'est un fichier : lu à la demande depuis la Part
+                UploadedFile uploadedFile = new UploadedFile(part, uploadSpillThreshold);
+                uploadedFiles.put(name, uploadedFile);
+                storeForCleanup(req, uploadedFile);
+            } else {
+                // C'est un paramètre texte : octets bruts, fins de ligne conservées
+                try (InputStream in = part.getInputStream()) {
+                    addTextParam(textParams, name, new String(in.readAllBytes(), charset));
                 }
             }
         }
-
-        return allValues;
     }
 
-    private boolean isComplexObject(Class<?> type) {
-        return !type.isPrimitive() &&
-                !type.equals(String.class) &&
-                !type.equals(Integer.class) &&
-                !type.equals(Double.class) &&
-                !type.equals(Boolean.class) &&
-                !type.equals(Long.class) &&
-                !type.equals(Float.class) &&
-                !type.getName().equals("com.example.classe.UploadedFile") &&
-                !Map.class.isAssignableFrom(type) &&
-                !List.class.isAssignableFrom(type);
-    }
-
-    private Object createObjectFromParams(Class<?> type, Map<String, String[]> params) {
+    private void readLimitedParts(HttpServletRequest req, Charset charset, Multipart limits,
+            Map<String, String[]> textParams, Map<String, UploadedFile> uploadedFiles) throws Exception {
+        String boundary = MultipartStream.boundaryOf(req.getContentType());
+        if (boundary == null) {
+            return;
+        }
+        MultipartStream stream = new MultipartStream(req.getInputStream(), boundary, charset,
+                limits.maxFileSize(), limits.maxParts(), limits.maxTotalSize());
         try {
-            Object instance = type.getDeclaredConstructor().newInstance();
-
-            for (Field field : type.getDeclaredFields()) {
-                field.setAccessible(true);
-                String fieldName = field.getName();
-
-                if (params.containsKey(fieldName)) {
-                    String[] values = params.get(fieldName);
-                    if (values != null && values.length > 0) {
-                        Object fieldValue = convertValue(values[0], field.getType());
-                        field.set(instance, fieldValue);
+            for (MultipartStream.StreamedPart part : stream) {
+                if (part.isFile()) {
+                    // Mis en mémoire ou sur disque avant la partie suivante
+                    UploadedFile uploadedFile = new UploadedFile(part.getFileName(), part.getContentType(),
+                            -1, part.getInputStream(), uploadSpillThreshold);
+                    storeForCleanup(req, uploadedFile);
+                    uploadedFile.load();
+                    if (uploadedFile.getSize() > 0) {
+                        uploadedFiles.put(part.getName(), uploadedFile);
+                    } else {
+                        addTextParam(textParams, part.getName(), "");
                     }
+                } else {
+                    addTextParam(textParams, part.getName(), part.getString());
                 }
             }
-
-            return instance;
-        } catch (Exception e) {
-            return null;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
     }
 
-    private String getParamName(Parameter param) {
-        if (param.isAnnotationPresent(Request.class)) {
-            return param.getAnnotation(Request.class).value();
+    // Gérer les paramètres multiples avec même nom
+    private static void addTextParam(Map<String, String[]> textParams, String name, String value) {
+        String[] existing = textParams.get(name);
+        if (existing != null) {
+            String[] newArray = new String[existing.length + 1];
+            System.arraycopy(existing, 0, newArray, 0, existing.length);
+            newArray[existing.length] = value;
+            textParams.put(name, newArray);
+        } else {
+            textParams.put(name, new String[] { value });
         }
-        return param.getName();
     }
 
-    private Object convertValue(String value, Class<?> type) {
-        if (value == null) {
-            return getDefaultValue(type);
-        }
-        return new Caste(value, type).getTypedValue();
+    // Cherche une MultipartLimitException dans la chaîne des causes
+    private MultipartLimitException findLimitException(Throwable e) {
+        return findCause(e, MultipartLimitException.class);
     }
 
-    private Object getDefaultValue(Class<?> type) {
-        if (type == int.class)
-            return 0;
-        if (type == long.class)
-            return 0L;
-        if (type == boolean.class)
-            return false;
-        if (type == double.class)
-            return 0.0;
-        if (type == float.class)
-            return 0.0f;
-        if (type == byte.class)
-            return (byte) 0;
-        if (type == short.class)
-            return (short) 0;
-        if (type == char.class)
-            return '\0';
+    private static <T extends Throwable> T findCause(Throwable e, Class<T> type) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (type.isInstance(t)) {
+                return type.cast(t);
+            }
+        }
         return null;
     }
 
+    /**
+     * 400 décrivant le paramètre invalide, en JSON :
+     * {"status":400,"error":"...","parameter":"id","value":"abc","expected":"int"}
+     * (pour un corps JSON, parameter est le chemin : "items[2].qty")
+     */
+    private void sendBadRequest(HttpServletResponse resp, ConversionException e) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", 400);
+        body.put("error", e.getMessage());
+        body.put("parameter", e.getParameter());
+        body.put("value", e.getValue());
+        body.put("expected", e.getTargetType().getSimpleName());
+        resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        writeJson(body, resp);
+    }
+
     // ==================== VOTRE LOGIQUE ORIGINALE ====================
-    private void handleResult(Object result, HttpServletRequest req, HttpServletResponse resp)
-            throws ServletException, IOException {
+    /**
+     * @return true si la requête a été confiée à une vue par AsyncContext.dispatch
+     *         (le contexte asynchrone ne doit alors pas être complété)
+     */
+    private boolean handleResult(Object result, HttpServletRequest req, HttpServletResponse resp,
+            AsyncContext async) throws ServletException, IOException {
 
         if (result instanceof ModelVue) {
             ModelVue mv = (ModelVue) result;
+            // Moteur de l'extension : rendu direct, sans dispatch ni copie en attributs
+            ViewEngine engine = viewEngines.forView(mv.getView());
+            if (engine != null) {
+                engine.render(mv.getView(), mv.getData(), req, resp);
+                return false;
+            }
             if (mv.getData() != null) {
                 for (Map.Entry<String, Object> entry : mv.getData().entrySet()) {
                     req.setAttribute(entry.getKey(), entry.getValue());
                 }
             }
+            if (async != null) {
+                async.dispatch(mv.getView());
+                return true;
+            }
             req.getRequestDispatcher(mv.getView()).forward(req, resp);
         } else if (result instanceof String) {
             String str = (String) result;
@@ -561,105 +1289,18 @@ public class UrlServlet extends HttpServlet {
                 resp.setContentType("text/html");
                 resp.getWriter().print(str);
             }
-        } else if (result instanceof Map) {
-            resp.setContentType("application/json");
-            resp.getWriter().print(toJson((Map<?, ?>) result));
-        } else if (result instanceof Iterable || result instanceof Object[]) {
-            resp.setContentType("application/json");
-            resp.getWriter().print(toJsonArray(result));
+        } else if (result instanceof Map || result instanceof Iterable || result instanceof Object[]) {
+            writeJson(result, resp);
         } else if (result != null) {
             resp.setContentType("text/html");
             resp.getWriter().print(result.toString());
         }
-    }
-
-    // VOTRE méthode toJson originale
-    private String toJson(Map<?, ?> map) {
-        StringBuilder sb = new StringBuilder("{");
-        boolean first = true;
-
-        for (Map.Entry<?, ?> entry : map.entrySet()) {
-            if (!first)
-                sb.append(",");
-            first = false;
-
-            sb.append("\"").append(entry.getKey()).append("\":");
-            Object value = entry.getValue();
-
-            if (value instanceof String) {
-                sb.append("\"").append(value).append("\"");
-            } else {
-                sb.append(value);
-            }
-        }
-
-        return sb.append("}").toString();
-    }
-
-    // VOTRE méthode toJsonArray originale
-    private String toJsonArray(Object obj) {
-        StringBuilder sb = new StringBuilder("[");
-        boolean first = true;
-
-        if (obj instanceof Iterable<?>) {
-            for (Object item : (Iterable<?>) obj) {
-                if (!first)
-                    sb.append(",");
-                first = false;
-                sb.append(toJsonValue(item));
-            }
-        } else if (obj instanceof Object[]) {
-            Object[] array = (Object[]) obj;
-            for (Object item : array) {
-                if (!first)
-                    sb.append(",");
-                first = false;
-                sb.append(toJsonValue(item));
-            }
-        }
-
-        return sb.append("]").toString();
-    }
-
-    // VOTRE méthode toJsonValue originale
-    private String toJsonValue(Object value) {
-        if (value == null) {
-            return "null";
-        } else if (value instanceof String) {
-            return "\"" + escapeJson((String) value) + "\"";
-        } else if (value instanceof Number || value instanceof Boolean) {
-            return value.toString();
-        } else if (value instanceof Map) {
-            return toJson((Map<?, ?>) value);
-        } else if (value instanceof Iterable || value instanceof Object[]) {
-            return toJsonArray(value);
-        } else {
-            return "\"" + escapeJson(value.toString()) + "\"";
-        }
-    }
-
-    // VOTRE méthode escapeJson originale
-    private String escapeJson(String str) {
-        if (str == null)
-            return "";
-        return str.replace("\\", "\\\\")
-                .replace("\"", "\\\"")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r")
-                .replace("\t", "\\t");
+        return false;
     }
 
     private void sendError(HttpServletResponse res, int code, String msg)
             throws IOException {
         res.setStatus(code);
-        if (code == 405) {
-            String url = "";
-            int idx = msg.lastIndexOf("pour ");
-            if (idx != -1) {
-                url = msg.substring(idx + 5);
-            }
-            res.setHeader("Allow", getAllowedMethods(url));
-        }
         res.setContentType("text/html");
         res.getWriter().println(
                 "<!DOCTYPE html>" +
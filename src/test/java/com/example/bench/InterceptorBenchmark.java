@@ -0,0 +1,70 @@
+package com.example.bench;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.example.controller.Interceptor;
+import com.example.controller.InterceptorChain;
+import com.example.controller.ScannerController.RouteData;
+
+/**
+ * Coût de la chaîne d'intercepteurs : route sans chaîne
+ * ({@code interceptors == null}, appel direct) contre une chaîne d'un
+ * intercepteur sans effet, comme dans UrlServlet.executeRoute.
+ *
+ * Lancement : voir {@link InvokerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterceptorBenchmark {
+
+    public static class UserController {
+        public String show(int id, String name) {
+            return name;
+        }
+    }
+
+    private RouteData direct;
+    private RouteData intercepted;
+    private Object[] args;
+
+    @Setup
+    public void setup() throws Exception {
+        direct = route();
+        intercepted = route();
+        Map<String, List<RouteData>> routes = new HashMap<>();
+        routes.put(intercepted.url, List.of(intercepted));
+        InterceptorChain.resolve(routes, List.of(new Interceptor() {
+        }));
+        args = new Object[] { 42, "alice" };
+    }
+
+    private static RouteData route() throws Exception {
+        return new RouteData(new UserController(), UserController.class.getMethod("show", int.class, String.class),
+                "/users/{id}", "GET", new String[] { "id", "name" });
+    }
+
+    private Object execute(RouteData route) throws Exception {
+        InterceptorChain chain = route.interceptors;
+        if (chain == null) {
+            return route.invoke(args);
+        }
+        return chain.execute(route, null, null, invocation -> invocation.start(args));
+    }
+
+    @Benchmark
+    public Object noChain() throws Exception {
+        return execute(direct);
+    }
+
+    @Benchmark
+    public Object oneInterceptor() throws Exception {
+        return execute(intercepted);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.bench;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.example.controller.ScannerController.RouteData;
+
+/**
+ * Appel d'une méthode de contrôleur : Method.invoke (ancienne dispatch)
+ * contre l'invoker MethodHandle compilé par RouteData.
+ *
+ * Lancement :
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/bench.cp
+ * java -cp target/test-classes:target/classes:$(cat target/bench.cp) org.openjdk.jmh.Main InvokerBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvokerBenchmark {
+
+    public static class UserController {
+        public String show(int id, String name) {
+            return name;
+        }
+    }
+
+    private UserController controller;
+    private Method method;
+    private RouteData route;
+    private Object[] args;
+
+    @Setup
+    public void setup() throws Exception {
+        controller = new UserController();
+        method = UserController.class.getMethod("show", int.class, String.class);
+        route = new RouteData(controller, method, "/users/{id}", "GET", new String[] { "id", "name" });
+        args = new Object[] { 42, "alice" };
+    }
+
+    @Benchmark
+    public Object reflection() throws Exception {
+        return method.invoke(controller, args);
+    }
+
+    @Benchmark
+    public Object methodHandle() throws Exception {
+        return route.invoke(args);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.classe;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+class JsonConverterTest {
+
+    @Test
+    void mostSpecificRegisteredTypeWins() {
+        for (int attempt = 0; attempt < 20; attempt++) {
+            JsonConverter json = new JsonConverter();
+            // Ordre d'enregistrement varié : le résultat ne doit pas en dépendre
+            if (attempt % 2 == 0) {
+                json.register(Collection.class, (value, out, j) -> out.write("\"collection\""));
+                json.register(List.class, (value, out, j) -> out.write("\"list\""));
+            } else {
+                json.register(List.class, (value, out, j) -> out.write("\"list\""));
+                json.register(Collection.class, (value, out, j) -> out.write("\"collection\""));
+            }
+            json.register(Object.class, (value, out, j) -> out.write("\"object\""));
+
+            assertEquals("\"list\"", json.serialize(new ArrayList<>()));
+            assertEquals("\"list\"", json.serialize(new LinkedList<>()));
+            assertEquals("\"collection\"", json.serialize(new HashSet<>()));
+            assertEquals("\"object\"", json.serialize(new StringBuilder()));
+        }
+    }
+
+    @Test
+    void superclassWinsOverInterface() {
+        JsonConverter json = new JsonConverter();
+        json.register(List.class, (value, out, j) -> out.write("\"list\""));
+        json.register(AbstractList.class, (value, out, j) -> out.write("\"abstract\""));
+        assertEquals("\"abstract\"", json.serialize(new ArrayList<>()));
+    }
+
+    @Test
+    void registerReplacesCachedResolution() {
+        JsonConverter json = new JsonConverter();
+        json.register(Collection.class, (value, out, j) -> out.write("1"));
+        assertEquals("1", json.serialize(new ArrayList<>()));
+        json.register(List.class, (value, out, j) -> out.write("2"));
+        assertEquals("2", json.serialize(new ArrayList<>()));
+    }
+}
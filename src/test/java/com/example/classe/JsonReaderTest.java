@@ -0,0 +1,129 @@
+package com.example.classe;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+class JsonReaderTest {
+
+    private static JsonReader reader(String json) {
+        return new JsonReader(new StringReader(json));
+    }
+
+    @Test
+    void decodesEscapes() throws IOException {
+        JsonReader r = reader("\"a\\\"b\\\\c\\/d\\b\\f\\n\\r\\t\\u00e9\\u20AC\"");
+        assertEquals("a\"b\\c/d\b\f\n\r\té€", r.nextString());
+        r.endDocument();
+    }
+
+    @Test
+    void rejectsInvalidEscapes() {
+        assertThrows(JsonSyntaxException.class, () -> reader("\"\\x\"").nextString());
+        assertThrows(JsonSyntaxException.class, () -> reader("\"\\u12G4\"").nextString());
+    }
+
+    @Test
+    void rejectsControlCharactersAndUnterminatedStrings() {
+        assertThrows(JsonSyntaxException.class, () -> reader("\"a\nb\"").nextString());
+        assertThrows(JsonSyntaxException.class, () -> reader("\"abc").nextString());
+    }
+
+    @Test
+    void readsStringsAcrossBufferBoundaries() throws IOException {
+        // Échappements placés de part et d'autre de la limite du tampon de 8 Ko
+        StringBuilder json = new StringBuilder("\"");
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 8189; i++) {
+            json.append('x');
+            expected.append('x');
+        }
+        json.append("\\u0041\\n");
+        expected.append("A\n");
+        for (int i = 0; i < 20000; i++) {
+            json.append('y');
+            expected.append('y');
+        }
+        json.append('"');
+
+        assertEquals(expected.toString(), reader(json.toString()).nextString());
+    }
+
+    @Test
+    void boundsStringLength() {
+        String json = "\"" + "a".repeat(JsonReader.MAX_STRING_LENGTH + 1) + "\"";
+        JsonSyntaxException e = assertThrows(JsonSyntaxException.class, () -> reader(json).nextString());
+        assertTrue(e.getMessage().startsWith("Chaîne trop longue"));
+    }
+
+    @Test
+    void validatesNumbers() throws IOException {
+        assertEquals("-12.5e+3", reader("-12.5e+3").nextNumber());
+        assertEquals("0", reader("0,").nextNumber());
+        for (String invalid : new String[] { "-", "1.", "1e", ".5", "1.2.3", "--1" }) {
+            assertThrows(JsonSyntaxException.class, () -> reader(invalid).nextNumber(), invalid);
+        }
+    }
+
+    @Test
+    void iteratesObjectsAndArrays() throws IOException {
+        JsonReader r = reader(" { \"a\" : [1, 2] , \"b\":true,\"c\":null } ");
+        r.beginObject();
+        assertTrue(r.hasNext('}', true));
+        assertEquals("a", r.nextName());
+        r.beginArray();
+        assertTrue(r.hasNext(']', true));
+        assertEquals("1", r.nextNumber());
+        assertTrue(r.hasNext(']', false));
+        assertEquals("2", r.nextNumber());
+        assertFalse(r.hasNext(']', false));
+        assertTrue(r.hasNext('}', false));
+        assertEquals("b", r.nextName());
+        assertTrue(r.nextBoolean());
+        assertTrue(r.hasNext('}', false));
+        assertEquals("c", r.nextName());
+        r.nextNull();
+        assertFalse(r.hasNext('}', false));
+        r.endDocument();
+    }
+
+    @Test
+    void rejectsMissingCommaAndTrailingContent() throws IOException {
+        JsonReader r = reader("[1 2]");
+        r.beginArray();
+        r.hasNext(']', true);
+        r.nextNumber();
+        assertThrows(JsonSyntaxException.class, () -> r.hasNext(']', false));
+
+        JsonReader trailing = reader("{} x");
+        trailing.skipValue();
+        assertThrows(JsonSyntaxException.class, trailing::endDocument);
+    }
+
+    @Test
+    void skipsNestedValues() throws IOException {
+        JsonReader r = reader("{\"a\":{\"b\":[1,{\"c\":\"}\"}],\"d\":false}} 7");
+        r.skipValue();
+        assertEquals("7", r.nextNumber());
+    }
+
+    @Test
+    void limitsNestingDepth() throws IOException {
+        int depth = JsonReader.MAX_DEPTH + 10;
+        String json = "[".repeat(depth) + "]".repeat(depth);
+        JsonSyntaxException e = assertThrows(JsonSyntaxException.class, () -> reader(json).skipValue());
+        assertTrue(e.getMessage().startsWith("Document trop profond"));
+
+        String accepted = "[".repeat(100) + "]".repeat(100);
+        reader(accepted).skipValue();
+    }
+
+    @Test
+    void reportsErrorPosition() {
+        JsonSyntaxException e = assertThrows(JsonSyntaxException.class, () -> reader("   tru").nextBoolean());
+        assertEquals(6, e.getPosition());
+    }
+}
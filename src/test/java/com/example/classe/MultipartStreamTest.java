@@ -0,0 +1,192 @@
+package com.example.classe;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+class MultipartStreamTest {
+
+    private static final String BOUNDARY = "----b0undary";
+
+    private static byte[] body(Object... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < parts.length; i += 3) {
+            String name = (String) parts[i];
+            String fileName = (String) parts[i + 1];
+            byte[] content = parts[i + 2] instanceof byte[]
+                    ? (byte[]) parts[i + 2]
+                    : ((String) parts[i + 2]).getBytes(StandardCharsets.UTF_8);
+            write(out, "--" + BOUNDARY + "\r\n");
+            write(out, "Content-Disposition: form-data; name=\"" + name + "\""
+                    + (fileName != null ? "; filename=\"" + fileName + "\"" : "") + "\r\n");
+            if (fileName != null) {
+                write(out, "Content-Type: application/octet-stream\r\n");
+            }
+            write(out, "\r\n");
+            out.writeBytes(content);
+            write(out, "\r\n");
+        }
+        write(out, "--" + BOUNDARY + "--\r\n");
+        return out.toByteArray();
+    }
+
+    private static void write(ByteArrayOutputStream out, String s) {
+        out.writeBytes(s.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static MultipartStream stream(InputStream in) {
+        return new MultipartStream(in, BOUNDARY, StandardCharsets.UTF_8, -1, -1, -1);
+    }
+
+    // Flux qui ne rend que quelques octets par lecture
+    private static InputStream trickle(byte[] data, int chunk) {
+        return new ByteArrayInputStream(data) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, chunk));
+            }
+        };
+    }
+
+    @Test
+    void readsFieldsAndFilesInOrder() throws IOException {
+        MultipartStream parts = stream(new ByteArrayInputStream(
+                body("title", null, "Héllo\r\nworld", "doc", "a.txt", "content", "tag", null, "")));
+
+        MultipartStream.StreamedPart title = parts.next();
+        assertEquals("title", title.getName());
+        assertFalse(title.isFile());
+        assertEquals("Héllo\r\nworld", title.getString());
+
+        MultipartStream.StreamedPart doc = parts.next();
+        assertTrue(doc.isFile());
+        assertEquals("a.txt", doc.getFileName());
+        assertEquals("application/octet-stream", doc.getContentType());
+        assertEquals("content", new String(doc.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+
+        assertEquals("", parts.next().getString());
+        assertFalse(parts.hasNext());
+    }
+
+    @Test
+    void skipsUnreadParts() throws IOException {
+        MultipartStream parts = stream(new ByteArrayInputStream(
+                body("a", "big.bin", new byte[100_000], "b", null, "kept")));
+        List<String> names = new ArrayList<>();
+        String value = null;
+        for (MultipartStream.StreamedPart part : parts) {
+            names.add(part.getName());
+            if (!part.isFile()) {
+                value = part.getString();
+            }
+        }
+        assertEquals(List.of("a", "b"), names);
+        assertEquals("kept", value);
+    }
+
+    @Test
+    void findsDelimiterSplitAcrossBufferBoundary() throws IOException {
+        // Le délimiteur tombe à cheval sur la fin du tampon de 64 Ko, à
+        // chaque décalage possible
+        int buffer = 64 * 1024;
+        for (int shift = -BOUNDARY.length() - 6; shift <= 6; shift++) {
+            byte[] content = new byte[buffer - 150 + shift];
+            new Random(shift).nextBytes(content);
+            // Pas de \r qui ressemblerait au début d'un délimiteur
+            for (int i = 0; i < content.length; i++) {
+                if (content[i] == '\r') {
+                    content[i] = 'r';
+                }
+            }
+            MultipartStream parts = stream(new ByteArrayInputStream(body("f", "x.bin", content, "g", null, "end")));
+            assertArrayEquals(content, parts.next().getInputStream().readAllBytes(), "décalage " + shift);
+            assertEquals("end", parts.next().getString());
+            assertFalse(parts.hasNext());
+        }
+    }
+
+    @Test
+    void handlesPartialReadsAndDelimiterLookalikes() throws IOException {
+        String tricky = "line\r\n--" + BOUNDARY.substring(0, 5) + "\r\n--\r\r\n-";
+        byte[] data = body("f", "t.txt", tricky, "n", null, "v");
+        MultipartStream parts = stream(trickle(data, 3));
+
+        InputStream in = parts.next().getInputStream();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1) {
+            out.write(b);
+        }
+        assertEquals(tricky, out.toString(StandardCharsets.UTF_8));
+        assertEquals("v", parts.next().getString());
+    }
+
+    @Test
+    void ignoresPreamble() throws IOException {
+        byte[] data = body("a", null, "1");
+        byte[] preamble = "preamble\r\n".getBytes(StandardCharsets.ISO_8859_1);
+        byte[] withPreamble = new byte[preamble.length + data.length];
+        System.arraycopy(preamble, 0, withPreamble, 0, preamble.length);
+        System.arraycopy(data, 0, withPreamble, preamble.length, data.length);
+        assertEquals("1", stream(new ByteArrayInputStream(withPreamble)).next().getString());
+    }
+
+    @Test
+    void enforcesFileSizeLimit() {
+        MultipartStream parts = new MultipartStream(new ByteArrayInputStream(body("f", "a.bin", new byte[2000])),
+                BOUNDARY, null, 1000, -1, -1);
+        MultipartStream.StreamedPart part = parts.next();
+        assertThrows(MultipartLimitException.class, () -> part.getInputStream().readAllBytes());
+    }
+
+    @Test
+    void enforcesFileSizeLimitOnSkippedParts() {
+        MultipartStream parts = new MultipartStream(
+                new ByteArrayInputStream(body("f", "a.bin", new byte[2000], "g", null, "x")),
+                BOUNDARY, null, 1000, -1, -1);
+        parts.next();
+        UncheckedIOException e = assertThrows(UncheckedIOException.class, parts::hasNext);
+        assertInstanceOf(MultipartLimitException.class, e.getCause());
+    }
+
+    @Test
+    void enforcesPartCountLimit() {
+        MultipartStream parts = new MultipartStream(
+                new ByteArrayInputStream(body("a", null, "1", "b", null, "2", "c", null, "3")),
+                BOUNDARY, null, -1, 2, -1);
+        parts.next();
+        parts.next();
+        UncheckedIOException e = assertThrows(UncheckedIOException.class, parts::hasNext);
+        assertInstanceOf(MultipartLimitException.class, e.getCause());
+    }
+
+    @Test
+    void enforcesTotalSizeLimitWhileReading() {
+        MultipartStream parts = new MultipartStream(
+                trickle(body("f", "a.bin", new byte[200_000]), 4096),
+                BOUNDARY, null, -1, -1, 100_000);
+        MultipartStream.StreamedPart part = parts.next();
+        assertThrows(MultipartLimitException.class, () -> part.getInputStream().readAllBytes());
+    }
+
+    @Test
+    void rejectsTruncatedBody() {
+        byte[] data = body("f", "a.bin", new byte[5000]);
+        byte[] truncated = Arrays.copyOf(data, data.length - 40);
+        MultipartStream.StreamedPart part = stream(new ByteArrayInputStream(truncated)).next();
+        IOException e = assertThrows(IOException.class, () -> part.getInputStream().readAllBytes());
+        assertFalse(e instanceof MultipartLimitException);
+    }
+
+    @Test
+    void parsesBoundaryParameter() {
+        assertEquals("abc", MultipartStream.boundaryOf("multipart/form-data; boundary=abc"));
+        assertEquals("a b", MultipartStream.boundaryOf("multipart/form-data; charset=utf-8; BOUNDARY=\"a b\""));
+        assertNull(MultipartStream.boundaryOf("multipart/form-data"));
+        assertNull(MultipartStream.boundaryOf(null));
+    }
+}
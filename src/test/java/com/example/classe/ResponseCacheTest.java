@@ -0,0 +1,64 @@
+package com.example.classe;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+class ResponseCacheTest {
+
+    private static ResponseCache.Entry entry() {
+        return new ResponseCache.Entry(200, "text/plain", Collections.emptyList(), new byte[100], 60_000);
+    }
+
+    private static void load(ResponseCache cache, String key) throws Exception {
+        cache.getOrLoad(key, ResponseCacheTest::entry);
+        // Dates d'accès distinctes
+        Thread.sleep(2);
+    }
+
+    @Test
+    void evictsLeastRecentlyReadDownToNinetyPercent() throws Exception {
+        // 168 octets par entrée (corps 100 + 64, clé 2 caractères)
+        ResponseCache cache = new ResponseCache(700);
+        load(cache, "k1");
+        load(cache, "k2");
+        load(cache, "k3");
+        load(cache, "k4");
+        assertEquals(4 * 168, cache.getUsedBytes());
+
+        assertNotNull(cache.get("k1"));
+        Thread.sleep(2);
+        load(cache, "k5");
+
+        // 840 > 700 : éviction de k2 puis k3 jusqu'à 630 au plus
+        assertNotNull(cache.get("k1"));
+        assertNull(cache.get("k2"));
+        assertNull(cache.get("k3"));
+        assertNotNull(cache.get("k4"));
+        assertNotNull(cache.get("k5"));
+        assertEquals(3 * 168, cache.getUsedBytes());
+    }
+
+    @Test
+    void invalidateReleasesBytes() throws Exception {
+        ResponseCache cache = new ResponseCache(ResponseCache.DEFAULT_MAX_BYTES);
+        String a = ResponseCache.key("/items", new String[] {"1"}, new String[0], null);
+        String b = ResponseCache.key("/items", new String[] {"2"}, new String[0], null);
+        String other = ResponseCache.key("/users", new String[] {"1"}, new String[0], null);
+        cache.getOrLoad(a, ResponseCacheTest::entry);
+        cache.getOrLoad(b, ResponseCacheTest::entry);
+        cache.getOrLoad(other, ResponseCacheTest::entry);
+        long otherBytes = 164 + other.length() * 2L;
+
+        cache.invalidate("/items", "1");
+        assertNull(cache.get(a));
+        assertNotNull(cache.get(b));
+
+        cache.invalidate("/items");
+        assertNull(cache.get(b));
+        assertEquals(1, cache.size());
+        assertEquals(otherBytes, cache.getUsedBytes());
+    }
+}
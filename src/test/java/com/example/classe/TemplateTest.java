@@ -0,0 +1,106 @@
+package com.example.classe;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+class TemplateTest {
+
+    public record User(String name, boolean admin) {
+    }
+
+    public static class Product {
+        public final String label = "Thé";
+
+        public int getPrice() {
+            return 12;
+        }
+    }
+
+    private static String render(String source, Map<String, Object> model) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Template.Output out = new Template.Output(bytes);
+        Template.compile("test.tpl", source).render(model, null, out, null);
+        out.flush();
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String compileError(String source) {
+        return assertThrows(IllegalStateException.class, () -> Template.compile("page.tpl", source)).getMessage();
+    }
+
+    @Test
+    void escapesValuesUnlessRaw() throws IOException {
+        Map<String, Object> model = Map.of("v", "<a href=\"x\">O'K & co</a>");
+        assertEquals("&lt;a href=&quot;x&quot;&gt;O&#39;K &amp; co&lt;/a&gt; | <a href=\"x\">O'K & co</a>",
+                render("{{v}} | {{{v}}}", model));
+    }
+
+    @Test
+    void encodesUtf8IncludingSurrogatePairs() throws IOException {
+        assertEquals("é € 😀 <p>", render("é {{a}} {{b}} <p>", Map.of("a", "€", "b", "😀")));
+    }
+
+    @Test
+    void writesValuesLargerThanTheBuffer() throws IOException {
+        String big = "é<".repeat(10_000);
+        assertEquals("[" + "é&lt;".repeat(10_000) + "]", render("[{{big}}]", Map.of("big", big)));
+    }
+
+    @Test
+    void resolvesMapsRecordsGettersAndPublicFields() throws IOException {
+        Map<String, Object> model = new HashMap<>();
+        model.put("user", new User("Ana", true));
+        model.put("product", new Product());
+        model.put("meta", Map.of("lang", "fr"));
+        model.put("list", List.of("zero", "one"));
+        assertEquals("Ana/Thé/12/fr/one/", render(
+                "{{user.name}}/{{product.label}}/{{product.price}}/{{meta.lang}}/{{list.1}}/{{missing.x}}", model));
+    }
+
+    @Test
+    void rendersLoopsWithElseAndNestedVariables() throws IOException {
+        Map<String, Object> model = new HashMap<>();
+        model.put("users", List.of(new User("a", true), new User("b", false)));
+        model.put("name", "outer");
+        model.put("none", List.of());
+        model.put("nums", new int[] { 1, 2 });
+
+        assertEquals("a*,b,|outer", render(
+                "{{#each users as u}}{{u.name}}{{#if u.admin}}*{{/if}},{{/each}}|{{name}}", model));
+        assertEquals("vide", render("{{#each none}}x{{else}}vide{{/each}}", model));
+        assertEquals("12", render("{{#each nums}}{{this}}{{/each}}", model));
+    }
+
+    @Test
+    void evaluatesConditions() throws IOException {
+        Map<String, Object> model = new HashMap<>();
+        model.put("empty", "");
+        model.put("list", List.of(1));
+        model.put("off", false);
+        assertEquals("no|yes|no|yes", render(
+                "{{#if empty}}yes{{else}}no{{/if}}|{{#if list}}yes{{/if}}"
+                        + "|{{#unless list}}yes{{else}}no{{/unless}}|{{#unless off}}yes{{/unless}}", model));
+    }
+
+    @Test
+    void dropsComments() throws IOException {
+        assertEquals("ab", render("a{{! rien }}b", Map.of()));
+    }
+
+    @Test
+    void reportsErrorLines() {
+        assertEquals("Template page.tpl ligne 3 : balise non fermée", compileError("a\nb\n{{x"));
+        assertEquals("Template page.tpl ligne 2 : balise vide", compileError("a\n{{ }}"));
+        assertEquals("Template page.tpl ligne 1 : bloc invalide {{#each}}", compileError("{{#each}}"));
+        assertEquals("Template page.tpl ligne 4 : fermeture inattendue {{/each}}",
+                compileError("{{#if a}}\n\n\n{{/each}}"));
+        assertEquals("Template page.tpl ligne 1 : {{else}} hors d'un bloc", compileError("{{else}}"));
+        assertEquals("Template page.tpl ligne 2 : bloc {{#if}} non fermé", compileError("x\n{{#if a}}\ny"));
+    }
+}
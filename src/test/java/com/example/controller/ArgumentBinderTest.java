@@ -0,0 +1,96 @@
+package com.example.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.annotation.Body;
+import com.example.controller.ScannerController.RouteData;
+
+class ArgumentBinderTest {
+
+    public record Item(String sku, int qty) {
+    }
+
+    public static class Orders {
+        public void list(@Body List<Item> items) {
+        }
+
+        public void array(long id, @Body Item[] items) {
+        }
+    }
+
+    // Requête JSON minimale : seuls le type et le corps sont lus
+    private static HttpServletRequest jsonRequest(String json) {
+        ByteArrayInputStream body = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+        ServletInputStream in = new ServletInputStream() {
+            @Override
+            public int read() {
+                return body.read();
+            }
+
+            @Override
+            public boolean isFinished() {
+                return body.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener listener) {
+                throw new UnsupportedOperationException();
+            }
+        };
+        return (HttpServletRequest) Proxy.newProxyInstance(ArgumentBinderTest.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getContentType":
+                            return "application/json";
+                        case "getInputStream":
+                            return in;
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private static Object[] bind(RouteData route, String json, String... pathVars) throws Exception {
+        RequestContext ctx = new RequestContext(jsonRequest(json), pathVars);
+        Object[] args = new Object[route.binders.length];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = route.binders[i].bind(ctx);
+        }
+        return args;
+    }
+
+    @Test
+    void bindsBodyIntoListOfObjects() throws Exception {
+        RouteData route = new RouteData(new Orders(), Orders.class.getMethod("list", List.class),
+                "/orders", "POST", new String[] { "items" });
+
+        Object[] args = bind(route, "[{\"sku\":\"a\",\"qty\":1},{\"sku\":\"b\",\"qty\":2}]");
+        assertEquals(List.of(new Item("a", 1), new Item("b", 2)), args[0]);
+    }
+
+    @Test
+    void bindsBodyIntoArrayOfObjects() throws Exception {
+        RouteData route = new RouteData(new Orders(), Orders.class.getMethod("array", long.class, Item[].class),
+                "/orders/{id}", "POST", new String[] { "id", "items" });
+
+        Object[] args = bind(route, "[{\"sku\":\"a\",\"qty\":1}]", "9");
+        assertEquals(9L, args[0]);
+        assertArrayEquals(new Item[] { new Item("a", 1) }, (Item[]) args[1]);
+    }
+}
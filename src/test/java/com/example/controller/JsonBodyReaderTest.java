@@ -0,0 +1,100 @@
+package com.example.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.math.BigInteger;
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.classe.ConversionException;
+import com.example.classe.JsonReader;
+import com.example.classe.JsonSyntaxException;
+
+class JsonBodyReaderTest {
+
+    public record Item(String sku, int qty) {
+    }
+
+    public record Order(long id, List<Item> items, Map<String, Object> meta, boolean paid) {
+    }
+
+    public static class Customer {
+        private String name;
+        private int[] scores;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int[] getScores() {
+            return scores;
+        }
+
+        public void setScores(int[] scores) {
+            this.scores = scores;
+        }
+    }
+
+    private static Object read(String json, Type type) throws IOException {
+        return JsonBodyReader.read(new StringReader(json), type);
+    }
+
+    @Test
+    void emptyBodyIsNull() throws IOException {
+        assertNull(read("", Order.class));
+        assertNull(read("  \n ", Order.class));
+    }
+
+    @Test
+    void bindsRecordsWithNestedCollections() throws IOException {
+        Order order = (Order) read("{\"id\":7,\"items\":[{\"sku\":\"a\\u00e9\",\"qty\":2},{\"sku\":\"b\",\"qty\":3}],"
+                + "\"meta\":{\"n\":1,\"x\":1.5,\"big\":123456789012345678901,\"tags\":[\"t\"]},"
+                + "\"unknown\":{\"skip\":[1,2]}}", Order.class);
+
+        assertEquals(7, order.id());
+        assertEquals(List.of(new Item("aé", 2), new Item("b", 3)), order.items());
+        assertEquals(1L, order.meta().get("n"));
+        assertEquals(1.5, order.meta().get("x"));
+        assertEquals(new BigInteger("123456789012345678901"), order.meta().get("big"));
+        assertEquals(List.of("t"), order.meta().get("tags"));
+        assertFalse(order.paid());
+    }
+
+    @Test
+    void bindsBeansAndArrays() throws IOException {
+        Customer customer = (Customer) read("{\"name\":\"Ana\",\"scores\":[1,2,3]}", Customer.class);
+        assertEquals("Ana", customer.getName());
+        assertArrayEquals(new int[] { 1, 2, 3 }, customer.getScores());
+    }
+
+    @Test
+    void conversionErrorsCarryTheJsonPath() {
+        ConversionException e = assertThrows(ConversionException.class,
+                () -> read("{\"id\":1,\"items\":[{\"sku\":\"a\",\"qty\":1},{\"sku\":\"b\",\"qty\":\"x\"}]}", Order.class));
+        assertEquals("items[1].qty", e.getParameter());
+        assertEquals("x", e.getValue());
+    }
+
+    @Test
+    void rejectsMalformedDocuments() {
+        assertThrows(JsonSyntaxException.class, () -> read("{\"id\":1,}", Order.class));
+        assertThrows(JsonSyntaxException.class, () -> read("{\"id\":1} {}", Order.class));
+        assertThrows(JsonSyntaxException.class, () -> read("[1,2", List.class));
+    }
+
+    @Test
+    void limitsNestingDepth() {
+        int depth = JsonReader.MAX_DEPTH + 10;
+        String json = "[".repeat(depth) + "]".repeat(depth);
+        JsonSyntaxException e = assertThrows(JsonSyntaxException.class, () -> read(json, Object.class));
+        assertTrue(e.getMessage().startsWith("Document trop profond"));
+    }
+}
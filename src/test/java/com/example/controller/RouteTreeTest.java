@@ -0,0 +1,68 @@
+package com.example.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.controller.ScannerController.RouteData;
+
+class RouteTreeTest {
+
+    public static class Users {
+        public String list() {
+            return "";
+        }
+
+        public String show(int id) {
+            return "";
+        }
+
+        public String byName(String name) {
+            return "";
+        }
+    }
+
+    private static RouteData route(String method, String url, String javaMethod, Class<?>... types) throws Exception {
+        String[] names = types.length == 0 ? new String[0] : new String[] { "id" };
+        return new RouteData(new Users(), Users.class.getMethod(javaMethod, types), url, method, names);
+    }
+
+    private static RouteTree tree(RouteData... routes) {
+        Map<String, List<RouteData>> map = new LinkedHashMap<>();
+        for (RouteData route : routes) {
+            map.computeIfAbsent(route.url, k -> new ArrayList<>()).add(route);
+        }
+        return new RouteTree(map);
+    }
+
+    @Test
+    void findsRoutesAndPathVariables() throws Exception {
+        RouteTree tree = tree(route("GET", "/users", "list"), route("GET", "/users/{id}", "show", int.class));
+
+        RouteTree.Match list = tree.find("/users", "GET");
+        assertEquals("list", list.route.method.getName());
+        assertSame(list, tree.find("/users/", "GET"));
+
+        RouteTree.Match show = tree.find("/users/42", "GET");
+        assertEquals("show", show.route.method.getName());
+        assertArrayEquals(new String[] { "42" }, show.pathVars);
+
+        assertEquals("show", tree.find("/users/42", "HEAD").route.method.getName());
+        assertNull(tree.find("/users/42", "DELETE").route);
+        assertEquals("GET, HEAD, OPTIONS", tree.find("/users/42", "DELETE").allow);
+        assertNull(tree.find("/orders", "GET"));
+    }
+
+    @Test
+    void rejectsDuplicateRoutes() throws Exception {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> tree(route("GET", "/users/{id}", "show", int.class),
+                        route("GET", "/users/{name}", "byName", String.class)));
+        assertTrue(e.getMessage().contains("Users.show"), e.getMessage());
+        assertTrue(e.getMessage().contains("Users.byName"), e.getMessage());
+
+        tree(route("GET", "/users/{id}", "show", int.class), route("DELETE", "/users/{id}", "show", int.class));
+    }
+}